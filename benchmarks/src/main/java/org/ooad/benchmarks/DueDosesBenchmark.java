@@ -0,0 +1,88 @@
+package org.ooad.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.ooad.server.observer.ReminderSystem;
+import org.ooad.server.service.DueDoseRequest;
+import org.ooad.server.service.MedicationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The clinician dashboard (POST /api/medications/due) behind the controller: MedicationService.getDueDoses
+ * for a 5,000-patient ward against the real application on in-memory H2, then Jackson writing the response.
+ * Unlike DueTimeIndexBenchmark this includes the name lookups (id IN queries joined to app_user).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class DueDosesBenchmark {
+
+    private static final int WARD_PATIENTS = 5000;
+
+    @Param({"100000", "1000000"})
+    public int rows;
+
+    // Doses are seeded from an hour out over the coming week: 120 is the next hour's doses, 1440 the next day's
+    @Param({"120", "1440"})
+    public int withinMinutes;
+
+    private ConfigurableApplicationContext context;
+    private MedicationService medicationService;
+    private ObjectMapper objectMapper;
+    private DueDoseRequest request;
+
+    @Setup
+    public void setup() throws Exception {
+        context = MedTrackApp.start("--server.port=0", "--logging.level.root=WARN",
+                "--medtrack.reminders.tick-initial-delay-ms=86400000");
+        try (Connection connection = context.getBean(DataSource.class).getConnection()) {
+            MedTrackApp.seedMedications(connection, rows, 0, LocalDateTime.now());
+        }
+        // Rows went in behind the application's back; load them as a restart would
+        context.getBean(ReminderSystem.class).rebuildIndex();
+        medicationService = context.getBean(MedicationService.class);
+        // The ObjectMapper the REST controllers write with
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        int patients = MedTrackApp.patientCount(rows);
+        Random random = new Random(5);
+        Set<Long> ward = new HashSet<>();
+        while (ward.size() < Math.min(WARD_PATIENTS, patients)) {
+            ward.add(1L + random.nextInt(patients));
+        }
+        request = new DueDoseRequest(new ArrayList<>(ward), withinMinutes, 0);
+    }
+
+    @Benchmark
+    public byte[] dueDosesForWard() throws Exception {
+        return objectMapper.writeValueAsBytes(medicationService.getDueDoses(request));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+}
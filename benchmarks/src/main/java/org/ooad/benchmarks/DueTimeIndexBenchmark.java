@@ -0,0 +1,88 @@
+package org.ooad.benchmarks;
+
+import org.ooad.server.model.ScheduledDose;
+import org.ooad.server.observer.DueTimeIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory due-time index behind the reminder tick and the clinician dashboard.
+ * Doses are spread evenly over a week, so the windows below hold a fixed share of the index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class DueTimeIndexBenchmark {
+
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private static final int WEEK_MINUTES = 7 * 24 * 60;
+    private static final int DOSES_PER_PATIENT = 4;
+    private static final int WARD_PATIENTS = 5000;
+
+    @Param({"10000", "100000", "1000000"})
+    public int doses;
+
+    private final DueTimeIndex index = new DueTimeIndex();
+    private final Random random = new Random(7);
+    private Set<Long> ward;
+
+    @Setup
+    public void setup() {
+        for (long id = 1; id <= doses; id++) {
+            index.schedule(new ScheduledDose(id, patientOf(id), START.plusMinutes(random.nextInt(WEEK_MINUTES)), 4));
+        }
+        int patients = Math.max(1, doses / DOSES_PER_PATIENT);
+        ward = new HashSet<>();
+        while (ward.size() < Math.min(WARD_PATIENTS, patients)) {
+            ward.add(1L + random.nextInt(patients));
+        }
+    }
+
+    /**
+     * What a reminder tick reads: everything due in the last ten minutes.
+     */
+    @Benchmark
+    public List<ScheduledDose> dueBeforeTick() {
+        return index.dueBefore(START.plusMinutes(10));
+    }
+
+    /**
+     * Dashboard query: a 5,000-patient ward, doses due in the next hour.
+     */
+    @Benchmark
+    public List<ScheduledDose> dueBetweenForWard() {
+        return index.dueBetween(START.plusHours(1), START.plusHours(2), ward);
+    }
+
+    /**
+     * Take/snooze: move one dose to a new due time.
+     */
+    @Benchmark
+    public void reschedule() {
+        long id = 1L + random.nextInt(doses);
+        index.schedule(new ScheduledDose(id, patientOf(id), START.plusMinutes(random.nextInt(WEEK_MINUTES)), 4));
+    }
+
+    private static long patientOf(long medicationId) {
+        return 1L + (medicationId - 1) / DOSES_PER_PATIENT;
+    }
+}
@@ -0,0 +1,57 @@
+package org.ooad.benchmarks;
+
+import org.ooad.server.model.BaseMedication;
+import org.ooad.server.model.Medication;
+import org.ooad.server.model.MedicationAttribute;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic sample data shared by the benchmarks.
+ */
+final class Fixtures {
+
+    // None of these interact with each other or with the probe medications below
+    private static final String[] NAMES = {
+            "Metformin", "Lisinopril", "Atorvastatin", "Levothyroxine", "Amlodipine", "Omeprazole",
+            "Simvastatin", "Losartan", "Gabapentin", "Sertraline", "Furosemide", "Pantoprazole"
+    };
+    private static final String[] FORMS = { "Tablet", "Capsule", "Syrup", "Injection" };
+
+    // Interacts with warfarin by name, so a regimen without warfarin makes every check a full scan
+    static final String PROBE_NAME = "Aspirin 81mg";
+
+    private Fixtures() {}
+
+    static List<Medication> regimen(int size, long seed) {
+        return List.copyOf(medications(size, seed));
+    }
+
+    static List<BaseMedication> medications(int size, long seed) {
+        Random random = new Random(seed);
+        List<BaseMedication> medications = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            medications.add(medication(i + 1L, random));
+        }
+        return medications;
+    }
+
+    static BaseMedication medication(long id, Random random) {
+        BaseMedication medication = new BaseMedication(NAMES[random.nextInt(NAMES.length)] + " " + (10 + random.nextInt(490)) + "mg",
+                FORMS[random.nextInt(FORMS.length)], 1 + random.nextInt(4));
+        medication.setId(id);
+        medication.setUserId(1L + id % 1000);
+        medication.setVersion(0L);
+        // Roughly one in four medications carries an attribute, none of them FOOD_SENSITIVE
+        if (random.nextInt(4) == 0) {
+            medication.setAttributeFlags(random.nextBoolean()
+                    ? MedicationAttribute.CONTROLLED.bit()
+                    : MedicationAttribute.REFRIGERATED.bit());
+        }
+        medication.setNextDueTime(LocalDateTime.of(2030, 1, 1, 8, 0).plusMinutes(random.nextInt(60 * 24 * 7)));
+        return medication;
+    }
+}
@@ -0,0 +1,75 @@
+package org.ooad.benchmarks;
+
+import org.ooad.server.model.BaseMedication;
+import org.ooad.server.model.Medication;
+import org.ooad.server.strategy.Regimen;
+import org.ooad.server.strategy.RuleBasedInteractionStrategy;
+import org.ooad.server.strategy.StandardInteractionStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checking a new medication against a regimen that has no interaction with it (the full-scan case),
+ * as the regimen grows: the original per-name strategy, the rule table over a list, and the rule table's
+ * pre-scanned Regimen that MedicationService keeps per user.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InteractionCheckBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int regimenSize;
+
+    private final StandardInteractionStrategy standard = new StandardInteractionStrategy();
+    private RuleBasedInteractionStrategy ruleBased;
+    private List<Medication> existing;
+    private Regimen regimen;
+    private Medication probe;
+
+    @Setup
+    public void setup() throws Exception {
+        try (Reader rules = new InputStreamReader(Objects.requireNonNull(
+                getClass().getResourceAsStream("/interaction-rules.csv")), StandardCharsets.UTF_8)) {
+            ruleBased = new RuleBasedInteractionStrategy(rules);
+        }
+        existing = Fixtures.regimen(regimenSize, 42);
+        regimen = ruleBased.newRegimen();
+        existing.forEach(regimen::add);
+        probe = new BaseMedication(Fixtures.PROBE_NAME, "Tablet");
+    }
+
+    @Benchmark
+    public String standardStrategy() {
+        return standard.checkInteraction(probe, existing);
+    }
+
+    @Benchmark
+    public String ruleTable() {
+        return ruleBased.checkInteraction(probe, existing);
+    }
+
+    @Benchmark
+    public String ruleTableRegimen() {
+        return regimen.check(probe);
+    }
+}
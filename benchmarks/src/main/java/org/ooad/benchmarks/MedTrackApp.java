@@ -0,0 +1,99 @@
+package org.ooad.benchmarks;
+
+import org.ooad.server.ServerApplication;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+/**
+ * Starts the real server application for the benchmarks that need Spring and the database,
+ * and bulk-loads medication rows with plain JDBC batches.
+ */
+final class MedTrackApp {
+
+    private static final int INSERT_BATCH = 10_000;
+    private static final int WEEK_MINUTES = 7 * 24 * 60;
+    private static final int MEDICATIONS_PER_USER = 5;
+
+    private MedTrackApp() {}
+
+    static ConfigurableApplicationContext start(String... args) {
+        return new SpringApplicationBuilder(ServerApplication.class)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run(args);
+    }
+
+    /**
+     * Inserts ids 1..rows: the first dueNow are a minute overdue, the rest spread over the coming week.
+     * Each user owns MEDICATIONS_PER_USER of them; the owners go in as "patient-N" so paths that join
+     * medications to users (e.g. the dashboard's name lookup) find them.
+     */
+    static void seedMedications(Connection connection, int rows, int dueNow, LocalDateTime now) throws SQLException {
+        Random random = new Random(3);
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        int users = patientCount(rows);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into app_user (id, username, password, roles) values (?, ?, ?, 'USER')")) {
+            for (int id = 1; id <= users; id++) {
+                insert.setLong(1, id);
+                insert.setString(2, "patient-" + id);
+                insert.setString(3, "{noop}unused");
+                insert.addBatch();
+                if (id % INSERT_BATCH == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into base_medication (id, version, user_id, name, dosage_form, attribute_flags, dosages_per_day, next_due_time, scheduled_for) "
+                        + "values (?, 0, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int id = 1; id <= rows; id++) {
+                LocalDateTime due = id <= dueNow
+                        ? now.minusMinutes(1)
+                        : now.plusHours(1).plusMinutes(random.nextInt(WEEK_MINUTES));
+                insert.setLong(1, id);
+                insert.setLong(2, 1L + (id - 1) / MEDICATIONS_PER_USER);
+                insert.setString(3, "Medication " + id);
+                insert.setString(4, "Tablet");
+                insert.setInt(5, 0);
+                insert.setInt(6, 1 + random.nextInt(4));
+                insert.setTimestamp(7, Timestamp.valueOf(due));
+                insert.setTimestamp(8, Timestamp.valueOf(due));
+                insert.addBatch();
+                if (id % INSERT_BATCH == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        // Keep ids the application hands out later clear of the seeded range
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("alter sequence medication_seq restart with " + (rows + 1));
+            statement.execute("alter table app_user alter column id restart with " + (users + 1));
+        }
+    }
+
+    /**
+     * How many users seedMedications inserts for the given number of rows; their ids are 1..patientCount(rows).
+     */
+    static int patientCount(int rows) {
+        return (rows + MEDICATIONS_PER_USER - 1) / MEDICATIONS_PER_USER;
+    }
+}
@@ -0,0 +1,67 @@
+package org.ooad.benchmarks;
+
+import org.ooad.server.factory.SimpleMedicationFactory;
+import org.ooad.server.model.Medication;
+import org.ooad.server.model.MedicationAttribute;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Factory plus decorator chain, and reading attributes back through the decorators.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MedicationFactoryBenchmark {
+
+    private final SimpleMedicationFactory factory = new SimpleMedicationFactory();
+    private final Set<MedicationAttribute> allAttributes = EnumSet.allOf(MedicationAttribute.class);
+    private Medication foodSensitive;
+    private Medication fullyDecorated;
+
+    @Setup
+    public void setup() {
+        foodSensitive = factory.createMedication("Ciprofloxacin", "Tablet", true);
+        fullyDecorated = factory.createMedication("Insulin", "Injection", allAttributes);
+    }
+
+    @Benchmark
+    public Medication createPlain() {
+        return factory.createMedication("Metformin", "Tablet", false);
+    }
+
+    @Benchmark
+    public Medication createFoodSensitive() {
+        return factory.createMedication("Ciprofloxacin", "Tablet", true);
+    }
+
+    @Benchmark
+    public Medication createWithAllDecorators() {
+        return factory.createMedication("Insulin", "Injection", allAttributes);
+    }
+
+    @Benchmark
+    public String foodSensitiveAttributes() {
+        return foodSensitive.getAttributes();
+    }
+
+    @Benchmark
+    public String fullyDecoratedAttributes() {
+        return fullyDecorated.getAttributes();
+    }
+}
@@ -0,0 +1,68 @@
+package org.ooad.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.ooad.server.model.BaseMedication;
+import org.ooad.server.service.MedicationListCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The GET /api/medications path once the list is cached: the cache lookup, then Jackson writing the list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MedicationJsonBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int listSize;
+
+    private ObjectMapper objectMapper;
+    private MedicationListCache listCache;
+    private List<BaseMedication> medications;
+
+    @Setup
+    public void setup() {
+        // Same settings Spring Boot applies to the ObjectMapper behind the REST controllers
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        medications = Fixtures.medications(listSize, 11);
+        listCache = new MedicationListCache(50_000, Duration.ofMinutes(30), new SimpleMeterRegistry());
+        listCache.get(1L, userId -> medications);
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws Exception {
+        return objectMapper.writeValueAsBytes(medications);
+    }
+
+    @Benchmark
+    public List<BaseMedication> cachedListLookup() {
+        return listCache.get(1L, userId -> medications);
+    }
+
+    @Benchmark
+    public byte[] cachedListToJson() throws Exception {
+        return objectMapper.writeValueAsBytes(listCache.get(1L, userId -> medications));
+    }
+}
@@ -0,0 +1,88 @@
+package org.ooad.benchmarks;
+
+import org.ooad.server.observer.DueTimeIndex;
+import org.ooad.server.repository.MedicationRepository;
+import org.ooad.server.observer.ReminderSystem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One ReminderSystem.checkForDueReminders() tick against the real application on in-memory H2,
+ * with a fixed number of overdue doses in a growing medication table. The tick should cost
+ * the same at every table size, since only the index entries that are due are read back.
+ * The first tick notifies the overdue doses; later ticks find them already alerted, the steady state.
+ * The application's own scheduled tick is held off so every measured call does a full tick.
+ * findAllScan is the baseline: the read the tick did before the index, every row loaded and filtered in memory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ReminderTickBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"100"})
+    public int dueDoses;
+
+    private ConfigurableApplicationContext context;
+    private ReminderSystem reminderSystem;
+    private DueTimeIndex dueTimeIndex;
+    private MedicationRepository medicationRepository;
+
+    @Setup
+    public void setup() throws Exception {
+        context = MedTrackApp.start("--server.port=0", "--logging.level.root=WARN",
+                "--medtrack.reminders.tick-initial-delay-ms=86400000");
+        try (Connection connection = context.getBean(DataSource.class).getConnection()) {
+            MedTrackApp.seedMedications(connection, rows, dueDoses, LocalDateTime.now());
+        }
+        reminderSystem = context.getBean(ReminderSystem.class);
+        dueTimeIndex = context.getBean(DueTimeIndex.class);
+        medicationRepository = context.getBean(MedicationRepository.class);
+        // Rows went in behind the application's back; load them as a restart would
+        reminderSystem.rebuildIndex();
+    }
+
+    @Benchmark
+    public int tick() {
+        reminderSystem.checkForDueReminders();
+        return dueTimeIndex.size();
+    }
+
+    /**
+     * The pre-index tick's findAll() scan. Stops at finding the due doses, so the comparison with tick()
+     * leaves out notification and counts only the read the index replaced.
+     */
+    @Benchmark
+    public long findAllScan() {
+        LocalDateTime now = LocalDateTime.now();
+        return medicationRepository.findAll().stream()
+                .filter(med -> med.getNextDueTime() != null && med.getNextDueTime().isBefore(now))
+                .count();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+}
@@ -0,0 +1,129 @@
+package org.ooad.benchmarks;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start of the "durable" profile over an existing file database: time until the first HTTP request
+ * is answered, and until startup has finished (which includes rebuilding the reminder index).
+ * Every measurement is a fresh JVM (one shot per fork). The database is seeded once, without starting
+ * Spring, into java.io.tmpdir/medtrack-startup-{rows} and reused by later forks and runs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 5, jvmArgsAppend = "-Xmx4g")
+public class StartupBenchmark {
+
+    @Param({"1000000"})
+    public int rows;
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private Path dataDir;
+    private CompletableFuture<ConfigurableApplicationContext> starting;
+
+    @Setup(Level.Trial)
+    public void seedDatabase() throws Exception {
+        dataDir = Path.of(System.getProperty("java.io.tmpdir"), "medtrack-startup-" + rows);
+        String url = "jdbc:h2:file:" + dataDir.resolve("medtrack").toAbsolutePath();
+        if (Files.exists(dataDir.resolve("medtrack.mv.db")) && countMedications(url) == rows) {
+            return;
+        }
+        Files.createDirectories(dataDir);
+        Files.deleteIfExists(dataDir.resolve("medtrack.mv.db"));
+        Flyway.configure().dataSource(url, "sa", "").load().migrate();
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            MedTrackApp.seedMedications(connection, rows, 0, LocalDateTime.now());
+        }
+    }
+
+    @Benchmark
+    public int timeToFirstRequest() throws Exception {
+        int port = freePort();
+        starting = startAsync(port);
+        HttpRequest health = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health")).build();
+        while (true) {
+            if (starting.isCompletedExceptionally()) {
+                starting.join();
+            }
+            try {
+                return http.send(health, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException notListeningYet) {
+                Thread.sleep(5);
+            }
+        }
+    }
+
+    @Benchmark
+    public int timeToReady() {
+        starting = startAsync(freePort());
+        return starting.join().getBeanDefinitionCount();
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() {
+        if (starting != null) {
+            starting.join().close();
+            starting = null;
+        }
+    }
+
+    private CompletableFuture<ConfigurableApplicationContext> startAsync(int port) {
+        return CompletableFuture.supplyAsync(() -> MedTrackApp.start(
+                "--spring.profiles.active=durable",
+                "--medtrack.data-dir=" + dataDir.toAbsolutePath(),
+                "--server.port=" + port,
+                "--logging.level.root=WARN"));
+    }
+
+    private static long countMedications(String url) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("select count(*) from base_medication")) {
+            return result.next() ? result.getLong(1) : -1;
+        } catch (SQLException missingSchema) {
+            return -1;
+        }
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new IllegalStateException("No free port", e);
+        }
+    }
+}
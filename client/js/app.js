@@ -1,6 +1,8 @@
 const API_BASE = 'http://localhost:8080/api';
 let medications = [];
 let pollingInterval = null;
+let eventSource = null;
+let medicationsETag = null;
 let timerInterval = null;
 let isAuthenticated = false;
 
@@ -114,12 +116,14 @@ async function handleLogin(e) {
     const password = document.getElementById('loginPassword').value;
     try {
         const response = await fetch(`${API_BASE}/auth/login?username=${username}&password=${password}`, { method: 'POST' });
-        const result = await response.text();
         if (response.ok) {
+            const token = await response.json();
             localStorage.setItem('medtrackUser', username);
+            localStorage.setItem('medtrackToken', token.accessToken);
             showAlert(`Welcome, ${username}!`, 'success');
             handleLoginSuccess();
         } else {
+            const result = await response.text();
             showAlert(`Login failed: ${result}`, 'error');
         }
     } catch (error) { showAlert('Connection error.', 'error'); }
@@ -133,7 +137,7 @@ function handleLoginSuccess() {
     if(authView) authView.style.display = 'none';
     if(appView) appView.style.display = 'grid';
     loadMedications();
-    startPolling();
+    openEventStream();
     if (Notification.permission === "granted") document.getElementById('enableNotifications').style.display = 'none';
 }
 
@@ -141,11 +145,16 @@ function handleLogout() {
     isAuthenticated = false;
     localStorage.removeItem('medtrackAuth');
     localStorage.removeItem('medtrackUser');
+    localStorage.removeItem('medtrackToken');
     const authView = document.getElementById('authView');
     const appView = document.getElementById('appView');
     if(authView) authView.style.display = 'grid';
     if(appView) appView.style.display = 'none';
     if (pollingInterval) clearInterval(pollingInterval);
+    pollingInterval = null;
+    if (eventSource) eventSource.close();
+    eventSource = null;
+    medicationsETag = null;
     showAlert('Logged out successfully.', 'success');
 }
 
@@ -165,6 +174,53 @@ async function handleRegister(e) {
     } catch (error) { showAlert('Connection error.', 'error'); }
 }
 
+// Bearer token from login; medication endpoints answer 401 without it
+function authHeaders(extra = {}) {
+    return { ...extra, 'Authorization': `Bearer ${localStorage.getItem('medtrackToken')}` };
+}
+
+function handleSessionExpired() {
+    handleLogout();
+    showAlert('Session expired, please sign in again.', 'error');
+}
+
+// Server pushes deltas over SSE; a full load only happens when the stream (re)connects.
+// Browsers without EventSource fall back to polling.
+function openEventStream() {
+    if (!window.EventSource) {
+        startPolling();
+        return;
+    }
+    if (eventSource) eventSource.close();
+    const username = localStorage.getItem('medtrackUser');
+    // EventSource cannot set headers, so the token travels as a query parameter
+    const token = localStorage.getItem('medtrackToken');
+    eventSource = new EventSource(`${API_BASE}/medications/stream?username=${encodeURIComponent(username)}&access_token=${encodeURIComponent(token)}`);
+    eventSource.onopen = () => loadMedications();
+    eventSource.onerror = () => showConnectionStatus('Reconnecting...', 'error');
+    ['ADDED', 'UPDATED', 'REMOVED', 'TAKEN', 'SNOOZED', 'DUE', 'MISSED'].forEach(type => {
+        eventSource.addEventListener(type, e => applyMedicationEvent(JSON.parse(e.data)));
+    });
+}
+
+function applyMedicationEvent(event) {
+    if (event.type === 'REMOVED') {
+        medications = medications.filter(med => med.id !== event.medicationId);
+    } else {
+        const index = medications.findIndex(med => med.id === event.medicationId);
+        if (event.medication) {
+            if (index >= 0) medications[index] = event.medication;
+            else medications.push(event.medication);
+        } else if (index >= 0) {
+            // Take/snooze deltas only carry the new due time
+            medications[index] = { ...medications[index], nextDueTime: event.nextDueTime };
+        }
+    }
+    checkAndNotifyDueMeds(medications);
+    renderMedications();
+    showConnectionStatus('Connected', 'success');
+}
+
 function startPolling() {
     if (!pollingInterval) {
         pollingInterval = setInterval(() => {
@@ -177,8 +233,18 @@ async function loadMedications() {
     if (!isAuthenticated) return;
     const username = localStorage.getItem('medtrackUser');
     try {
-        const response = await fetch(`${API_BASE}/medications?username=${username}`);
+        const headers = authHeaders(medicationsETag ? { 'If-None-Match': medicationsETag } : {});
+        const response = await fetch(`${API_BASE}/medications?username=${username}`, { headers });
+        if (response.status === 401) {
+            handleSessionExpired();
+            return;
+        }
+        if (response.status === 304) {
+            showConnectionStatus('Connected', 'success');
+            return;
+        }
         if (!response.ok) throw new Error('Failed');
+        medicationsETag = response.headers.get('ETag');
         medications = await response.json();
         checkAndNotifyDueMeds(medications);
         renderMedications();
@@ -208,7 +274,7 @@ async function handleAddMedication(e) {
     }
 
     try {
-        const response = await fetch(url, { method: 'POST' });
+        const response = await fetch(url, { method: 'POST', headers: authHeaders() });
         if (!response.ok) throw new Error('Failed');
         const newMed = await response.json();
 
@@ -223,7 +289,7 @@ async function handleAddMedication(e) {
 
 async function takeMedication(id, name) {
     try {
-        const response = await fetch(`${API_BASE}/medications/${id}/take`, { method: 'POST' });
+        const response = await fetch(`${API_BASE}/medications/${id}/take`, { method: 'POST', headers: authHeaders() });
         if (!response.ok) throw new Error('Failed');
         showAlert(`✅ ${name} marked as taken!`, 'success');
         await loadMedications();
@@ -232,7 +298,7 @@ async function takeMedication(id, name) {
 
 async function snoozeMedication(id, name) {
     try {
-        const response = await fetch(`${API_BASE}/medications/${id}/snooze`, { method: 'POST' });
+        const response = await fetch(`${API_BASE}/medications/${id}/snooze`, { method: 'POST', headers: authHeaders() });
         if (!response.ok) throw new Error('Failed');
         showAlert(`⏰ ${name} snoozed.`, 'warning');
         await loadMedications();
@@ -264,7 +330,7 @@ async function handleEditMedication(e) {
     const dosageForm = document.getElementById('editDosageForm').value;
     const dosagesPerDay = document.getElementById('editDosagesPerDay').value;
     try {
-        const response = await fetch(`${API_BASE}/medications/${id}?name=${encodeURIComponent(name)}&dosageForm=${encodeURIComponent(dosageForm)}&dosagesPerDay=${dosagesPerDay}`, { method: 'PUT' });
+        const response = await fetch(`${API_BASE}/medications/${id}?name=${encodeURIComponent(name)}&dosageForm=${encodeURIComponent(dosageForm)}&dosagesPerDay=${dosagesPerDay}`, { method: 'PUT', headers: authHeaders() });
         if (!response.ok) throw new Error('Failed');
         showAlert(`💊 ${name} updated.`, 'success');
         closeEditModal();
@@ -275,7 +341,7 @@ async function handleEditMedication(e) {
 async function deleteMedication(id, name) {
     if (!confirm(`Delete ${name}?`)) return;
     try {
-        const response = await fetch(`${API_BASE}/medications/${id}`, { method: 'DELETE' });
+        const response = await fetch(`${API_BASE}/medications/${id}`, { method: 'DELETE', headers: authHeaders() });
         if (!response.ok) throw new Error('Failed');
         showAlert(`🗑️ ${name} deleted.`, 'success');
         await loadMedications();
@@ -0,0 +1,84 @@
+package org.ooad.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram (microseconds, up to 1 minute, 3 significant digits) and error count per endpoint.
+ * Nothing is recorded until measuring() is switched on, so warm-up traffic does not count.
+ */
+final class EndpointStats {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private volatile boolean measuring;
+    private volatile long measuringSince;
+    private volatile long measuringUntil;
+
+    void startMeasuring() {
+        measuringSince = System.nanoTime();
+        measuring = true;
+    }
+
+    void stopMeasuring() {
+        measuringUntil = System.nanoTime();
+        measuring = false;
+    }
+
+    void record(String endpoint, long latencyNanos, boolean failed) {
+        if (!measuring) {
+            return;
+        }
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, name -> new Endpoint());
+        stats.histogram.recordValue(Math.min(HIGHEST_MICROS, Math.max(1, latencyNanos / 1000)));
+        if (failed) {
+            stats.errors.increment();
+        }
+    }
+
+    Map<String, Endpoint> endpoints() {
+        return endpoints;
+    }
+
+    double measuredSeconds() {
+        return (measuringUntil - measuringSince) / 1e9;
+    }
+
+    /**
+     * Per-endpoint summary table; full percentile distributions go to {endpoint}.hgrm in the report directory.
+     */
+    void report(PrintStream out, Path reportDir) throws IOException {
+        Files.createDirectories(reportDir);
+        double seconds = measuredSeconds();
+        out.printf("%-8s %9s %9s %8s %9s %9s %9s %9s%n", "endpoint", "requests", "req/s", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet().stream().sorted(Map.Entry.comparingByKey()).toList()) {
+            Histogram histogram = entry.getValue().histogram;
+            out.printf("%-8s %9d %9.1f %8d %9.2f %9.2f %9.2f %9.2f%n", entry.getKey(),
+                    histogram.getTotalCount(), histogram.getTotalCount() / seconds, entry.getValue().errors.sum(),
+                    millis(histogram, 50), millis(histogram, 99), millis(histogram, 99.9), histogram.getMaxValue() / 1000.0);
+            try (PrintStream file = new PrintStream(Files.newOutputStream(reportDir.resolve(entry.getKey() + ".hgrm")))) {
+                // Values are in microseconds; scale the distribution to milliseconds
+                histogram.outputPercentileDistribution(file, 1000.0);
+            }
+        }
+    }
+
+    static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    static final class Endpoint {
+        final Histogram histogram = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+    }
+}
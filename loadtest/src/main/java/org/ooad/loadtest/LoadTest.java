@@ -0,0 +1,244 @@
+package org.ooad.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+import org.ooad.server.ServerApplication;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end load test of the REST API. Boots the server in-process (or targets --base-url), registers
+ * the users and has each one bulk-import its own medications (timed, and reported as rows/s), runs the
+ * simulated users through a warm-up and a measured window, then prints per-endpoint throughput and latency
+ * percentiles, writes HdrHistogram distributions to the report directory, and exits with status 1 if any
+ * SLO was missed.
+ *
+ * <pre>java -jar loadtest/target/loadtest.jar --users=2000 --duration=2m --slo=list.p99=50,errors=0.001</pre>
+ */
+public class LoadTest {
+
+    private static final String PASSWORD = "load-test-password";
+    private static final int SEED_CONCURRENCY = 64;
+    private static final int IMPORT_CHUNK = 1000;
+    private static final String[] NAMES = { "Metformin", "Lisinopril", "Atorvastatin", "Levothyroxine", "Amlodipine",
+            "Omeprazole", "Losartan", "Gabapentin", "Sertraline", "Warfarin", "Aspirin", "Ciprofloxacin" };
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ConfigurableApplicationContext server = null;
+        String baseUrl = options.baseUrl();
+        if (baseUrl == null) {
+            server = startServer(options.serverProfiles());
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) server).getWebServer().getPort();
+        }
+        int status;
+        try {
+            status = run(options, baseUrl);
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+        }
+        System.exit(status);
+    }
+
+    /**
+     * The in-process server gets login limits high enough for one client address to sign in thousands of users.
+     * A server started separately for --base-url needs the same overrides.
+     */
+    private static ConfigurableApplicationContext startServer(String profiles) {
+        return new SpringApplicationBuilder(ServerApplication.class)
+                .bannerMode(Banner.Mode.OFF)
+                .profiles(profiles.isBlank() ? new String[0] : profiles.split(","))
+                .run("--server.port=0",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.ooad.server.config=INFO",
+                        "--medtrack.auth.login.ip-burst=1000000",
+                        "--medtrack.auth.login.user-burst=1000",
+                        "--medtrack.auth.hash-queue=100000",
+                        "--medtrack.auth.hash-queue-timeout=10m");
+    }
+
+    static int run(LoadTestOptions options, String baseUrl) throws Exception {
+        EndpointStats stats = new EndpointStats();
+        EndpointStats seedStats = new EndpointStats();
+        ExecutorService httpThreads = Executors.newFixedThreadPool(options.clientThreads());
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(Math.max(2, options.clientThreads() / 2));
+        try {
+            MedTrackClient client = new MedTrackClient(baseUrl, httpThreads, stats);
+            String prefix = "lt" + Long.toString(System.currentTimeMillis(), 36) + "-";
+            System.out.printf("Seeding %d users with %d medications each on %s%n",
+                    options.users(), options.medicationsPerUser(), baseUrl);
+            List<String> usernames = seedUsers(client, prefix, options.users());
+            seedMedications(new MedTrackClient(baseUrl, httpThreads, seedStats), seedStats, usernames,
+                    options.medicationsPerUser(), options.reportDir().resolve("seed"));
+
+            List<SimulatedUser> users = new ArrayList<>();
+            for (int i = 0; i < usernames.size(); i++) {
+                users.add(new SimulatedUser(usernames.get(i), PASSWORD, client, options, scheduler, i));
+            }
+            System.out.printf("Warming up for %s, then measuring for %s%n", options.warmup(), options.duration());
+            users.forEach(SimulatedUser::start);
+            Thread.sleep(options.warmup().toMillis());
+            stats.startMeasuring();
+            Thread.sleep(options.duration().toMillis());
+            stats.stopMeasuring();
+            drain(users);
+
+            stats.report(System.out, options.reportDir());
+            return checkSlos(stats, options.slos());
+        } finally {
+            scheduler.shutdownNow();
+            httpThreads.shutdownNow();
+        }
+    }
+
+    // Lets requests still in flight finish, so the server is not shut down under them
+    private static void drain(List<SimulatedUser> users) {
+        CompletableFuture<?>[] cycles = users.stream().map(SimulatedUser::stop).toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(cycles).get(30, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            System.out.println("Some requests were still in flight at shutdown: " + e);
+        }
+    }
+
+    private static List<String> seedUsers(MedTrackClient client, String prefix, int count) throws Exception {
+        Semaphore inFlight = new Semaphore(SEED_CONCURRENCY);
+        List<CompletableFuture<HttpResponse<String>>> registrations = new ArrayList<>();
+        List<String> usernames = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String username = prefix + i;
+            usernames.add(username);
+            inFlight.acquire();
+            registrations.add(client.register(username, PASSWORD, System.nanoTime())
+                    .whenComplete((response, error) -> inFlight.release()));
+        }
+        for (CompletableFuture<HttpResponse<String>> registration : registrations) {
+            HttpResponse<String> response = registration.join();
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Registration failed with " + response.statusCode() + ": " + response.body());
+            }
+        }
+        return usernames;
+    }
+
+    /**
+     * Imports every user's medications with that user's own token, since the server only lets a patient import
+     * their own rows. Logins happen first; the import requests alone are timed, and their rows/s and latency
+     * are reported before the load phase starts (histograms under {report-dir}/seed).
+     */
+    private static void seedMedications(MedTrackClient client, EndpointStats importStats, List<String> usernames,
+                                        int perUser, Path reportDir) throws Exception {
+        List<String> tokens = login(client, usernames);
+        ObjectMapper json = new ObjectMapper();
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        List<String> bodies = new ArrayList<>();
+        List<String> bodyTokens = new ArrayList<>();
+        int row = 0;
+        for (int u = 0; u < usernames.size(); u++) {
+            ArrayNode chunk = json.createArrayNode();
+            for (int i = 0; i < perUser; i++, row++) {
+                ObjectNode medication = chunk.addObject();
+                medication.put("username", usernames.get(u));
+                medication.put("name", NAMES[row % NAMES.length] + " " + (row % 50 + 1) * 10 + "mg");
+                medication.put("dosageForm", "Tablet");
+                medication.put("dosagesPerDay", 1 + row % 4);
+                medication.put("startTime", now.plusMinutes(row % (24 * 60)).toString());
+                if (chunk.size() == IMPORT_CHUNK || i == perUser - 1) {
+                    bodies.add(json.writeValueAsString(chunk));
+                    bodyTokens.add(tokens.get(u));
+                    chunk = json.createArrayNode();
+                }
+            }
+        }
+
+        Semaphore inFlight = new Semaphore(SEED_CONCURRENCY);
+        List<CompletableFuture<HttpResponse<String>>> imports = new ArrayList<>();
+        importStats.startMeasuring();
+        for (int i = 0; i < bodies.size(); i++) {
+            inFlight.acquire();
+            imports.add(client.bulkImport(bodies.get(i), bodyTokens.get(i), System.nanoTime())
+                    .whenComplete((response, error) -> inFlight.release()));
+        }
+        CompletableFuture.allOf(imports.toArray(CompletableFuture[]::new)).exceptionally(error -> null).join();
+        importStats.stopMeasuring();
+        for (CompletableFuture<HttpResponse<String>> request : imports) {
+            HttpResponse<String> response = request.join();
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Bulk import failed with " + response.statusCode() + ": " + response.body());
+            }
+        }
+        System.out.printf("Imported %d rows in %d requests over %.1f s: %.0f rows/s%n",
+                row, bodies.size(), importStats.measuredSeconds(), row / importStats.measuredSeconds());
+        importStats.report(System.out, reportDir);
+    }
+
+    private static List<String> login(MedTrackClient client, List<String> usernames) throws Exception {
+        Semaphore inFlight = new Semaphore(SEED_CONCURRENCY);
+        List<CompletableFuture<HttpResponse<String>>> logins = new ArrayList<>();
+        for (String username : usernames) {
+            inFlight.acquire();
+            logins.add(client.login(username, PASSWORD, System.nanoTime())
+                    .whenComplete((response, error) -> inFlight.release()));
+        }
+        ObjectMapper json = new ObjectMapper();
+        List<String> tokens = new ArrayList<>();
+        for (CompletableFuture<HttpResponse<String>> login : logins) {
+            HttpResponse<String> response = login.join();
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Login failed with " + response.statusCode() + ": " + response.body());
+            }
+            tokens.add(json.readTree(response.body()).path("accessToken").asText());
+        }
+        return tokens;
+    }
+
+    private static int checkSlos(EndpointStats stats, List<Slo> slos) {
+        long requests = 0;
+        long errors = 0;
+        for (EndpointStats.Endpoint endpoint : stats.endpoints().values()) {
+            requests += endpoint.histogram.getTotalCount();
+            errors += endpoint.errors.sum();
+        }
+        List<String> breaches = new ArrayList<>();
+        for (Slo slo : slos) {
+            if (slo.metric().equals("errors")) {
+                double rate = requests == 0 ? 0 : (double) errors / requests;
+                if (rate > slo.limit()) {
+                    breaches.add(slo + " (was " + String.format("%.4f", rate) + ")");
+                }
+                continue;
+            }
+            EndpointStats.Endpoint endpoint = stats.endpoints().get(slo.endpoint());
+            if (endpoint == null) {
+                System.out.println("  skipped " + slo + ": no requests recorded");
+                continue;
+            }
+            Histogram histogram = endpoint.histogram;
+            double observed = EndpointStats.millis(histogram, slo.percentile());
+            if (observed > slo.limit()) {
+                breaches.add(slo + " (was " + String.format("%.2f", observed) + " ms)");
+            }
+        }
+        System.out.printf("%nSLOs: %d checked, %d missed%n", slos.size(), breaches.size());
+        breaches.forEach(breach -> System.out.println("  MISSED " + breach));
+        return breaches.isEmpty() ? 0 : 1;
+    }
+}
@@ -0,0 +1,77 @@
+package org.ooad.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Command line settings, given as --key=value. Durations accept 500ms, 30s, 2m and so on.
+ * The defaults follow the web client: each signed-in user polls its list every 5 seconds, users spread evenly
+ * over the interval. --start-spread=0 starts them all at once, so every poll arrives as one burst
+ * (everybody's 08:00 dose). --server-profiles picks Spring profiles for the in-process server, e.g. virtual-threads.
+ */
+record LoadTestOptions(String baseUrl,
+                       int users,
+                       int medicationsPerUser,
+                       Duration warmup,
+                       Duration duration,
+                       Duration pollInterval,
+                       Duration startSpread,
+                       double takeRate,
+                       double snoozeRate,
+                       double addRate,
+                       double loginRate,
+                       int clientThreads,
+                       Path reportDir,
+                       String serverProfiles,
+                       List<Slo> slos) {
+
+    // p99 in milliseconds per endpoint, and the share of failed requests
+    static final String DEFAULT_SLOS =
+            "list.p99=100,take.p99=250,snooze.p99=250,add.p99=250,delete.p99=250,login.p99=1000,errors=0.01";
+
+    private static final Set<String> KEYS = Set.of("base-url", "users", "meds-per-user", "warmup", "duration",
+            "poll-interval", "start-spread", "take-rate", "snooze-rate", "add-rate", "login-rate", "client-threads",
+            "report-dir", "server-profiles", "slo");
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --key=value, got: " + arg);
+            }
+            String key = arg.substring(2, equals);
+            if (!KEYS.contains(key)) {
+                throw new IllegalArgumentException("Unknown option --" + key + "; known: " + KEYS);
+            }
+            values.put(key, arg.substring(equals + 1));
+        }
+        Duration pollInterval = duration(values.getOrDefault("poll-interval", "5s"));
+        return new LoadTestOptions(
+                values.get("base-url"),
+                Integer.parseInt(values.getOrDefault("users", "1000")),
+                Integer.parseInt(values.getOrDefault("meds-per-user", "5")),
+                duration(values.getOrDefault("warmup", "15s")),
+                duration(values.getOrDefault("duration", "60s")),
+                pollInterval,
+                values.containsKey("start-spread") ? duration(values.get("start-spread")) : pollInterval,
+                Double.parseDouble(values.getOrDefault("take-rate", "0.10")),
+                Double.parseDouble(values.getOrDefault("snooze-rate", "0.05")),
+                Double.parseDouble(values.getOrDefault("add-rate", "0.02")),
+                Double.parseDouble(values.getOrDefault("login-rate", "0.01")),
+                Integer.parseInt(values.getOrDefault("client-threads", String.valueOf(Runtime.getRuntime().availableProcessors()))),
+                Path.of(values.getOrDefault("report-dir", "target/loadtest")),
+                values.getOrDefault("server-profiles", ""),
+                Slo.parseAll(values.getOrDefault("slo", DEFAULT_SLOS)));
+    }
+
+    private static Duration duration(String value) {
+        return DurationStyle.detectAndParse(value);
+    }
+}
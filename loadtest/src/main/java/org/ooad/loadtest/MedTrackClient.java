@@ -0,0 +1,94 @@
+package org.ooad.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * The REST calls the web client makes, sent asynchronously. Every response is timed into EndpointStats
+ * from the caller's intended start, so a request that had to wait for an earlier slow one is charged
+ * for the wait too (no coordinated omission).
+ */
+final class MedTrackClient {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final String api;
+    private final HttpClient http;
+    private final EndpointStats stats;
+
+    MedTrackClient(String baseUrl, Executor executor, EndpointStats stats) {
+        this.api = baseUrl.replaceAll("/+$", "") + "/api";
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(TIMEOUT)
+                .executor(executor)
+                .build();
+        this.stats = stats;
+    }
+
+    CompletableFuture<HttpResponse<String>> register(String username, String password, long intendedStart) {
+        return send("register", post(api + "/auth/register?username=" + encode(username) + "&password=" + encode(password)), intendedStart);
+    }
+
+    CompletableFuture<HttpResponse<String>> login(String username, String password, long intendedStart) {
+        return send("login", post(api + "/auth/login?username=" + encode(username) + "&password=" + encode(password)), intendedStart);
+    }
+
+    CompletableFuture<HttpResponse<String>> list(String username, String token, String eTag, long intendedStart) {
+        HttpRequest.Builder request = authorized(api + "/medications?username=" + encode(username), token).GET();
+        if (eTag != null) {
+            request.header("If-None-Match", eTag);
+        }
+        return send("list", request.build(), intendedStart);
+    }
+
+    CompletableFuture<HttpResponse<String>> add(String username, String token, String name, long intendedStart) {
+        return send("add", authorized(api + "/medications?name=" + encode(name) + "&dosageForm=Tablet&dosagesPerDay=2&username="
+                + encode(username), token).POST(HttpRequest.BodyPublishers.noBody()).build(), intendedStart);
+    }
+
+    CompletableFuture<HttpResponse<String>> take(long medicationId, String token, long intendedStart) {
+        return send("take", authorized(api + "/medications/" + medicationId + "/take", token)
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), intendedStart);
+    }
+
+    CompletableFuture<HttpResponse<String>> snooze(long medicationId, String token, long intendedStart) {
+        return send("snooze", authorized(api + "/medications/" + medicationId + "/snooze", token)
+                .POST(HttpRequest.BodyPublishers.noBody()).build(), intendedStart);
+    }
+
+    CompletableFuture<HttpResponse<String>> delete(long medicationId, String token, long intendedStart) {
+        return send("delete", authorized(api + "/medications/" + medicationId, token).DELETE().build(), intendedStart);
+    }
+
+    CompletableFuture<HttpResponse<String>> bulkImport(String json, String token, long intendedStart) {
+        return send("bulk", authorized(api + "/medications/bulk", token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)).build(), intendedStart);
+    }
+
+    private CompletableFuture<HttpResponse<String>> send(String endpoint, HttpRequest request, long intendedStart) {
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> stats.record(endpoint, System.nanoTime() - intendedStart,
+                        error != null || response.statusCode() >= 400));
+    }
+
+    private static HttpRequest post(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).timeout(TIMEOUT).POST(HttpRequest.BodyPublishers.noBody()).build();
+    }
+
+    private static HttpRequest.Builder authorized(String uri, String token) {
+        return HttpRequest.newBuilder(URI.create(uri)).timeout(TIMEOUT).header("Authorization", "Bearer " + token);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
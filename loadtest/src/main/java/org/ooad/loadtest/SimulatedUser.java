@@ -0,0 +1,163 @@
+package org.ooad.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One signed-in browser tab, replaying client/js/app.js in polling mode: every poll interval it loads
+ * the list with If-None-Match, and now and then takes, snoozes, adds or deletes a medication, reloading
+ * the list afterwards as the page does. It signs in again when its token is rejected, and occasionally
+ * at random, to keep login in the mix.
+ */
+final class SimulatedUser {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final String username;
+    private final String password;
+    private final MedTrackClient client;
+    private final LoadTestOptions options;
+    private final ScheduledExecutorService scheduler;
+    private final Random random;
+
+    private String token;
+    private String eTag;
+    private List<Long> medicationIds = List.of();
+    private final List<Long> added = new ArrayList<>();
+    private long nextCycle;
+    private volatile boolean running = true;
+    private volatile CompletableFuture<Void> inFlight = CompletableFuture.completedFuture(null);
+
+    SimulatedUser(String username, String password, MedTrackClient client, LoadTestOptions options,
+                  ScheduledExecutorService scheduler, long seed) {
+        this.username = username;
+        this.password = password;
+        this.client = client;
+        this.options = options;
+        this.scheduler = scheduler;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Starts polling at a random offset within the start spread (by default the poll interval, so users do not
+     * arrive in lockstep; zero makes them all poll together).
+     */
+    void start() {
+        long offset = (long) (random.nextDouble() * options.startSpread().toNanos());
+        nextCycle = System.nanoTime() + offset;
+        scheduler.schedule(this::cycle, offset, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops scheduling new cycles; the returned future completes when the current one has finished.
+     */
+    CompletableFuture<Void> stop() {
+        running = false;
+        return inFlight;
+    }
+
+    private void cycle() {
+        if (!running) {
+            return;
+        }
+        long intended = nextCycle;
+        CompletableFuture<Void> work = token == null || random.nextDouble() < options.loginRate()
+                ? login(intended).thenCompose(ignored -> loadList(System.nanoTime()))
+                : loadList(intended);
+        inFlight = work.thenCompose(ignored -> action())
+                .whenComplete((ignored, error) -> scheduleNext());
+    }
+
+    private void scheduleNext() {
+        if (!running) {
+            return;
+        }
+        // Fixed rate: a slow cycle makes the next one late, and that lateness is counted in its latency
+        nextCycle += options.pollInterval().toNanos();
+        scheduler.schedule(this::cycle, Math.max(0, nextCycle - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    private CompletableFuture<Void> login(long intended) {
+        return client.login(username, password, intended).thenAccept(response -> {
+            if (response.statusCode() == 200) {
+                token = field(response, "accessToken");
+                eTag = null;
+            }
+        });
+    }
+
+    private CompletableFuture<Void> loadList(long intended) {
+        if (token == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return client.list(username, token, eTag, intended).thenAccept(response -> {
+            switch (response.statusCode()) {
+                case 200 -> {
+                    eTag = response.headers().firstValue("ETag").orElse(null);
+                    medicationIds = ids(response);
+                }
+                case 401 -> token = null;
+                default -> { }
+            }
+        });
+    }
+
+    private CompletableFuture<Void> action() {
+        if (token == null || medicationIds.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        double roll = random.nextDouble();
+        long start = System.nanoTime();
+        CompletableFuture<HttpResponse<String>> request;
+        if ((roll -= options.takeRate()) < 0) {
+            request = client.take(pick(), token, start);
+        } else if ((roll -= options.snoozeRate()) < 0) {
+            request = client.snooze(pick(), token, start);
+        } else if ((roll -= options.addRate()) < 0) {
+            request = client.add(username, token, "Load Test Med " + random.nextInt(1000), start).thenApply(response -> {
+                if (response.statusCode() == 200) {
+                    added.add(Long.parseLong(field(response, "id")));
+                }
+                return response;
+            });
+        } else if ((roll -= options.addRate()) < 0 && !added.isEmpty()) {
+            // Deletes what this user added, at the same rate, so lists stay about the same size
+            request = client.delete(added.remove(added.size() - 1), token, start);
+        } else {
+            return CompletableFuture.completedFuture(null);
+        }
+        return request.thenCompose(response -> loadList(System.nanoTime()));
+    }
+
+    private long pick() {
+        return medicationIds.get(random.nextInt(medicationIds.size()));
+    }
+
+    private static String field(HttpResponse<String> response, String name) {
+        try {
+            return JSON.readTree(response.body()).path(name).asText(null);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static List<Long> ids(HttpResponse<String> response) {
+        try {
+            List<Long> ids = new ArrayList<>();
+            for (JsonNode medication : JSON.readTree(response.body())) {
+                ids.add(medication.path("id").asLong());
+            }
+            return ids;
+        } catch (Exception e) {
+            return List.of();
+        }
+    }
+}
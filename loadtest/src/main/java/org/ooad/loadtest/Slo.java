@@ -0,0 +1,61 @@
+package org.ooad.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One service-level objective: either endpoint.pNN=millis (p50, p99, p999, max) or errors=fraction,
+ * the latter over all endpoints.
+ */
+record Slo(String endpoint, String metric, double limit) {
+
+    static final String ALL_ENDPOINTS = "*";
+
+    static List<Slo> parseAll(String spec) {
+        List<Slo> slos = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            String entry = part.trim();
+            if (entry.isEmpty()) {
+                continue;
+            }
+            int equals = entry.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("SLO must be endpoint.metric=limit or errors=fraction: " + entry);
+            }
+            String name = entry.substring(0, equals);
+            double limit = Double.parseDouble(entry.substring(equals + 1));
+            if (name.equals("errors")) {
+                slos.add(new Slo(ALL_ENDPOINTS, "errors", limit));
+                continue;
+            }
+            int dot = name.lastIndexOf('.');
+            if (dot < 0) {
+                throw new IllegalArgumentException("SLO must be endpoint.metric=limit: " + entry);
+            }
+            Slo slo = new Slo(name.substring(0, dot), name.substring(dot + 1), limit);
+            slo.percentile(); // validates the metric name
+            slos.add(slo);
+        }
+        return slos;
+    }
+
+    /**
+     * The percentile the metric names, e.g. p99 -> 99.0, p999 -> 99.9, max -> 100.
+     */
+    double percentile() {
+        if (metric.equals("max")) {
+            return 100.0;
+        }
+        if (!metric.matches("p\\d+")) {
+            throw new IllegalArgumentException("Unknown SLO metric " + metric + "; use p50, p99, p999 or max");
+        }
+        String digits = metric.substring(1);
+        // p50 -> 50, p99 -> 99, p999 -> 99.9, p9999 -> 99.99
+        return digits.length() <= 2 ? Double.parseDouble(digits) : Double.parseDouble(digits.substring(0, 2) + "." + digits.substring(2));
+    }
+
+    @Override
+    public String toString() {
+        return metric.equals("errors") ? "errors <= " + limit : endpoint + "." + metric + " <= " + limit + " ms";
+    }
+}
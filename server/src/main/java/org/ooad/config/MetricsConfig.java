@@ -0,0 +1,19 @@
+package org.ooad.server.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Turns @Timed on beans into Micrometer timers. Each timer is tagged with the class, the method
+ * and the exception thrown (or "none"), so call counts, latency and failures all come from the one meter.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -1,14 +1,26 @@
 package org.ooad.server.config;
 
 import org.springframework.context.annotation.Bean;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.config.Customizer;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.security.oauth2.server.resource.web.BearerTokenResolver;
+import org.springframework.security.oauth2.server.resource.web.DefaultBearerTokenResolver;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 
+import java.util.function.Supplier;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
@@ -18,6 +30,9 @@ public class SecurityConfig {
 
         // 1. Disable CSRF: Required for stateless JWT-based REST APIs.
         http.csrf(csrf -> csrf.disable());
+        http.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+        // Let preflight requests through using the controllers' @CrossOrigin settings
+        http.cors(Customizer.withDefaults());
 
         // 2. Configure Authorization Rules:
         http.authorizeHttpRequests(auth -> auth
@@ -25,11 +40,23 @@ public class SecurityConfig {
                 .requestMatchers(
                         new AntPathRequestMatcher("/api/status"),
                         new AntPathRequestMatcher("/api/register"),
-                        new AntPathRequestMatcher("/api/login")
+                        new AntPathRequestMatcher("/api/login"),
+                        new AntPathRequestMatcher("/api/auth/register"),
+                        new AntPathRequestMatcher("/api/auth/login")
                 ).permitAll()
 
-                // Allow all API endpoints for now (for testing)
-                .requestMatchers(new AntPathRequestMatcher("/api/**")).permitAll()
+                // Clinician dashboard reads other patients' doses
+                .requestMatchers(new AntPathRequestMatcher("/api/medications/due")).hasAnyRole("CLINICIAN", "ADMIN")
+
+                // Cohort adherence aggregates across patients
+                .requestMatchers(new AntPathRequestMatcher("/api/medications/adherence/cohort")).hasRole("ADMIN")
+
+                // Medication endpoints need a valid access token, issued to the user they name;
+                // endpoints addressed by medication id check ownership in MedicationService
+                .requestMatchers(new AntPathRequestMatcher("/api/medications/**")).access(SecurityConfig::tokenMatchesUsername)
+
+                // Remaining API endpoints (contact details) act on the token's own account
+                .requestMatchers(new AntPathRequestMatcher("/api/**")).authenticated()
 
                 // Allow all frontend files (HTML, JS, CSS) to be served
                 .requestMatchers(new AntPathRequestMatcher("/**")).permitAll()
@@ -42,9 +69,46 @@ public class SecurityConfig {
         http.httpBasic(httpBasic -> httpBasic.disable());
         http.formLogin(form -> form.disable());
 
+        // Bearer tokens from /api/auth/login, verified in memory by the JwtDecoder (see TokenConfig)
+        http.oauth2ResourceServer(oauth -> oauth
+                .bearerTokenResolver(bearerTokenResolver())
+                .jwt(jwt -> jwt.jwtAuthenticationConverter(rolesFromToken())));
+
         return http.build();
     }
 
+    // EventSource cannot send headers, so the event stream may pass the token as ?access_token=
+    private static BearerTokenResolver bearerTokenResolver() {
+        DefaultBearerTokenResolver headerOnly = new DefaultBearerTokenResolver();
+        DefaultBearerTokenResolver headerOrQuery = new DefaultBearerTokenResolver();
+        headerOrQuery.setAllowUriQueryParameter(true);
+        return request -> request.getRequestURI().endsWith("/api/medications/stream")
+                ? headerOrQuery.resolve(request)
+                : headerOnly.resolve(request);
+    }
+
+    // TokenService writes the user's roles as "USER,CLINICIAN"; they become ROLE_USER, ROLE_CLINICIAN
+    private static JwtAuthenticationConverter rolesFromToken() {
+        JwtGrantedAuthoritiesConverter roles = new JwtGrantedAuthoritiesConverter();
+        roles.setAuthoritiesClaimName("roles");
+        roles.setAuthorityPrefix("ROLE_");
+        roles.setAuthoritiesClaimDelimiter(",");
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(roles);
+        return converter;
+    }
+
+    // Authenticated, and any ?username= must be the token's subject
+    private static AuthorizationDecision tokenMatchesUsername(Supplier<Authentication> authentication,
+                                                              RequestAuthorizationContext context) {
+        Authentication auth = authentication.get();
+        if (auth == null || !auth.isAuthenticated() || auth instanceof AnonymousAuthenticationToken) {
+            return new AuthorizationDecision(false);
+        }
+        String username = context.getRequest().getParameter("username");
+        return new AuthorizationDecision(username == null || username.equals(auth.getName()));
+    }
+
     // 3. Password Encoder Bean: Required for securely hashing passwords.
     @Bean
     public PasswordEncoder passwordEncoder() {
@@ -0,0 +1,33 @@
+package org.ooad.server.command;
+
+import org.ooad.server.service.MedicationService;
+
+/**
+ * To "Skip" a medication.
+ */
+public class SkipCommand implements MedicationCommand {
+
+    private final MedicationService medicationService;
+    private final Long medicationId;
+    // Signed-in user the medication must belong to; null for internal callers
+    private final String username;
+
+    public SkipCommand(MedicationService medicationService, Long medicationId) {
+        this(medicationService, medicationId, null);
+    }
+
+    public SkipCommand(MedicationService medicationService, Long medicationId, String username) {
+        this.medicationService = medicationService;
+        this.medicationId = medicationId;
+        this.username = username;
+    }
+
+    @Override
+    public void execute() {
+        if (username == null) {
+            medicationService.skipMedication(medicationId);
+        } else {
+            medicationService.skipMedication(medicationId, username);
+        }
+    }
+}
\ No newline at end of file
@@ -9,14 +9,25 @@ public class SnoozeCommand implements MedicationCommand {
 
     private final MedicationService medicationService;
     private final Long medicationId;
+    // Signed-in user the medication must belong to; null for internal callers
+    private final String username;
 
     public SnoozeCommand(MedicationService medicationService, Long medicationId) {
+        this(medicationService, medicationId, null);
+    }
+
+    public SnoozeCommand(MedicationService medicationService, Long medicationId, String username) {
         this.medicationService = medicationService;
         this.medicationId = medicationId;
+        this.username = username;
     }
 
     @Override
     public void execute() {
-        medicationService.snoozeMedication(medicationId);
+        if (username == null) {
+            medicationService.snoozeMedication(medicationId);
+        } else {
+            medicationService.snoozeMedication(medicationId, username);
+        }
     }
 }
\ No newline at end of file
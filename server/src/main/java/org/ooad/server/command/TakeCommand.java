@@ -10,14 +10,25 @@ public class TakeCommand implements MedicationCommand {
 
     private final MedicationService medicationService;
     private final Long medicationId;
+    // Signed-in user the medication must belong to; null for internal callers
+    private final String username;
 
     public TakeCommand(MedicationService medicationService, Long medicationId) {
+        this(medicationService, medicationId, null);
+    }
+
+    public TakeCommand(MedicationService medicationService, Long medicationId, String username) {
         this.medicationService = medicationService;
         this.medicationId = medicationId;
+        this.username = username;
     }
 
     @Override
     public void execute() {
-        medicationService.takeMedication(medicationId);
+        if (username == null) {
+            medicationService.takeMedication(medicationId);
+        } else {
+            medicationService.takeMedication(medicationId, username);
+        }
     }
 }
\ No newline at end of file
@@ -1,79 +1,266 @@
 package org.ooad.server.controller;
 
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.ooad.server.command.MedicationCommand;
+import org.ooad.server.command.SkipCommand;
 import org.ooad.server.command.SnoozeCommand;
 import org.ooad.server.command.TakeCommand;
 import org.ooad.server.model.BaseMedication;
+import org.ooad.server.model.MedicationAttribute;
+import org.ooad.server.model.MedicationSummary;
+import org.ooad.server.service.AdherenceService;
+import org.ooad.server.service.DueDoseRequest;
+import org.ooad.server.service.MedicationImport;
+import org.ooad.server.service.MedicationImportResult;
+import org.ooad.server.service.MedicationPage;
 import org.ooad.server.service.MedicationService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.Principal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/medications")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = HttpHeaders.ETAG)
 public class MedicationController {
 
+    // CSV rows handed to the service per import call
+    private static final int CSV_CHUNK_ROWS = 5000;
+
+    // Properties a listing row can be trimmed to with ?fields=
+    private static final Set<String> SUMMARY_FIELDS = Set.of(
+            "id", "name", "dosageForm", "nextDueTime", "dosagesPerDay", "attributeFlags", "attributes");
+
     private final MedicationService medicationService;
+    private final AdherenceService adherenceService;
 
     @Autowired
-    public MedicationController(MedicationService medicationService) {
+    public MedicationController(MedicationService medicationService, AdherenceService adherenceService) {
         this.medicationService = medicationService;
+        this.adherenceService = adherenceService;
     }
 
+    /**
+     * Conditional GET: a matching If-None-Match is answered with 304 without loading the list.
+     */
     @GetMapping
-    public List<BaseMedication> getMedications(@RequestParam String username) {
+    public List<BaseMedication> getMedications(@RequestParam String username, WebRequest request) {
+        if (request.checkNotModified(medicationService.getListETag(username))) {
+            return null;
+        }
         return medicationService.getUserMedications(username);
     }
 
+    /**
+     * Cursor-paged listing, ordered by due time. Optional filters: dueAfter (inclusive), dueBefore (exclusive),
+     * attributes (all must be set). fields limits each row to the named properties, e.g. fields=id,name,nextDueTime.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<?> listMedications(@RequestParam String username,
+                                             @RequestParam(required = false) String cursor,
+                                             @RequestParam(defaultValue = "50") int limit,
+                                             @RequestParam(required = false)
+                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueAfter,
+                                             @RequestParam(required = false)
+                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueBefore,
+                                             @RequestParam(required = false) Set<MedicationAttribute> attributes,
+                                             @RequestParam(required = false) Set<String> fields) {
+        SimpleBeanPropertyFilter rowFilter = SimpleBeanPropertyFilter.serializeAll();
+        if (fields != null && !fields.isEmpty()) {
+            if (!SUMMARY_FIELDS.containsAll(fields)) {
+                return ResponseEntity.badRequest().body("Unknown fields; allowed: " + SUMMARY_FIELDS);
+            }
+            rowFilter = SimpleBeanPropertyFilter.filterOutAllExcept(fields);
+        }
+        try {
+            MedicationPage page = medicationService.listMedications(username, dueAfter, dueBefore,
+                    attributes == null ? Set.of() : attributes, cursor, limit);
+            MappingJacksonValue body = new MappingJacksonValue(page);
+            body.setFilters(new SimpleFilterProvider().addFilter(MedicationSummary.FIELD_FILTER, rowFilter));
+            return ResponseEntity.ok(body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Clinician dashboard (CLINICIAN or ADMIN role, see SecurityConfig): every dose due within the next withinMinutes for the listed patients, sorted by due time.
+     */
+    @PostMapping("/due")
+    public ResponseEntity<?> getDueDoses(@RequestBody DueDoseRequest request) {
+        try {
+            return ResponseEntity.ok(medicationService.getDueDoses(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Server-Sent Events stream of medication deltas (ADDED, UPDATED, REMOVED, TAKEN, SNOOZED, DUE).
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMedications(@RequestParam String username) {
+        return medicationService.openEventStream(username);
+    }
+
+    /**
+     * Per-medication on-time rate, average delay and missed doses for a user between two dates (inclusive).
+     */
+    @GetMapping("/adherence")
+    public ResponseEntity<?> getAdherence(@RequestParam String username,
+                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(adherenceService.forUser(username, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Admin view: the same figures per medication name across a cohort (all users if none are listed).
+     * Needs a token with the ADMIN role; see SecurityConfig.
+     */
+    @GetMapping("/adherence/cohort")
+    public ResponseEntity<?> getCohortAdherence(@RequestParam(required = false) List<String> usernames,
+                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(adherenceService.forCohort(usernames, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @PostMapping
     public BaseMedication addMedication(@RequestParam String name,
                                         @RequestParam String dosageForm,
                                         @RequestParam(defaultValue = "false") boolean foodSensitive,
+                                        @RequestParam(defaultValue = "false") boolean controlled,
+                                        @RequestParam(defaultValue = "false") boolean refrigerated,
                                         @RequestParam(defaultValue = "1") int dosagesPerDay,
                                         @RequestParam String username,
                                         // Optional Start Time (ISO Date Time format)
                                         @RequestParam(required = false)
                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime) {
 
-        return medicationService.addMedication(name, dosageForm, foodSensitive, dosagesPerDay, username, startTime);
+        Set<MedicationAttribute> attributes = EnumSet.noneOf(MedicationAttribute.class);
+        if (foodSensitive) {
+            attributes.add(MedicationAttribute.FOOD_SENSITIVE);
+        }
+        if (controlled) {
+            attributes.add(MedicationAttribute.CONTROLLED);
+        }
+        if (refrigerated) {
+            attributes.add(MedicationAttribute.REFRIGERATED);
+        }
+        return medicationService.addMedication(name, dosageForm, attributes, dosagesPerDay, username, startTime);
+    }
+
+    /**
+     * Bulk import of a JSON array of medications. Rows belong to the signed-in user; only administrators
+     * may import for other users.
+     */
+    @PostMapping(path = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public MedicationImportResult importMedications(@RequestBody List<MedicationImport> rows, Authentication caller) {
+        return medicationService.importMedications(rows, importOwner(caller));
+    }
+
+    /**
+     * Bulk import of a CSV stream (see MedicationCsvReader for the columns), processed in chunks.
+     */
+    @PostMapping(path = "/bulk", consumes = "text/csv")
+    public ResponseEntity<?> importMedicationsCsv(InputStream body, Authentication caller) throws IOException {
+        String owner = importOwner(caller);
+        MedicationImportResult result = new MedicationImportResult();
+        try (MedicationCsvReader reader = new MedicationCsvReader(body)) {
+            List<MedicationImport> chunk;
+            while ((chunk = reader.next(CSV_CHUNK_ROWS)) != null) {
+                result.merge(medicationService.importMedications(chunk, owner));
+            }
+            reader.errors().forEach(result::reject);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        return ResponseEntity.ok(result);
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<BaseMedication> updateMedication(@PathVariable Long id,
                                                            @RequestParam String name,
                                                            @RequestParam String dosageForm,
-                                                           @RequestParam(defaultValue = "1") int dosagesPerDay) {
+                                                           @RequestParam(defaultValue = "1") int dosagesPerDay,
+                                                           Principal caller) {
         try {
-            BaseMedication updatedMed = medicationService.updateMedication(id, name, dosageForm, dosagesPerDay);
+            BaseMedication updatedMed = medicationService.updateMedication(id, name, dosageForm, dosagesPerDay, caller.getName());
             return ResponseEntity.ok(updatedMed);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
+        } catch (OptimisticLockingFailureException e) {
+            // Changed by another request since it was read; the client should reload and retry
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteMedication(@PathVariable Long id) {
+    public ResponseEntity<Void> deleteMedication(@PathVariable Long id, Principal caller) {
         try {
-            medicationService.deleteMedication(id);
+            medicationService.deleteMedication(id, caller.getName());
             return ResponseEntity.noContent().build();
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
     }
 
     @PostMapping("/{id}/take")
-    public String takeMedication(@PathVariable Long id) {
-        new TakeCommand(medicationService, id).execute();
-        return "Taken successfully";
+    public ResponseEntity<String> takeMedication(@PathVariable Long id, Principal caller) {
+        return run(new TakeCommand(medicationService, id, caller.getName()), "Taken successfully");
     }
 
     @PostMapping("/{id}/snooze")
-    public String snoozeMedication(@PathVariable Long id) {
-        new SnoozeCommand(medicationService, id).execute();
-        return "Snoozed successfully";
+    public ResponseEntity<String> snoozeMedication(@PathVariable Long id, Principal caller) {
+        return run(new SnoozeCommand(medicationService, id, caller.getName()), "Snoozed successfully");
+    }
+
+    @PostMapping("/{id}/skip")
+    public ResponseEntity<String> skipMedication(@PathVariable Long id, Principal caller) {
+        return run(new SkipCommand(medicationService, id, caller.getName()), "Skipped successfully");
+    }
+
+    // Missing and someone else's medication both answer 404
+    private static ResponseEntity<String> run(MedicationCommand command, String done) {
+        try {
+            command.execute();
+            return ResponseEntity.ok(done);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // Administrators import for anyone; everyone else only into their own account
+    private static String importOwner(Authentication caller) {
+        boolean admin = caller.getAuthorities().stream()
+                .anyMatch(authority -> authority.getAuthority().equals("ROLE_ADMIN"));
+        return admin ? null : caller.getName();
     }
-}
\ No newline at end of file
+}
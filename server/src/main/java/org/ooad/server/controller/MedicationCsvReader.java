@@ -0,0 +1,131 @@
+package org.ooad.server.controller;
+
+import org.ooad.server.service.MedicationImport;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads MedicationImport rows from a CSV body a chunk at a time, so large feeds never sit in memory whole.
+ * The first line is a header naming the columns: username,name,dosageForm are required;
+ * foodSensitive, dosagesPerDay and startTime (ISO date-time) are optional. Fields may be double-quoted.
+ * Malformed lines are skipped and reported through errors().
+ */
+class MedicationCsvReader implements Closeable {
+
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private final List<String> errors = new ArrayList<>();
+    private int lineNumber = 0;
+
+    MedicationCsvReader(InputStream in) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String header = reader.readLine();
+        if (header == null) {
+            return;
+        }
+        lineNumber++;
+        List<String> names = split(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim(), i);
+        }
+        for (String required : List.of("username", "name", "dosageForm")) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing column: " + required);
+            }
+        }
+    }
+
+    /**
+     * @return Up to max rows, or null once the input is exhausted.
+     */
+    List<MedicationImport> next(int max) throws IOException {
+        if (columns.isEmpty()) {
+            return null;
+        }
+        List<MedicationImport> rows = new ArrayList<>(max);
+        String line;
+        while (rows.size() < max && (line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                rows.add(parse(split(line)));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                errors.add("Line " + lineNumber + ": " + e.getMessage());
+            }
+        }
+        return rows.isEmpty() ? null : rows;
+    }
+
+    List<String> errors() {
+        return errors;
+    }
+
+    private MedicationImport parse(List<String> fields) {
+        String foodSensitive = field(fields, "foodSensitive");
+        String dosagesPerDay = field(fields, "dosagesPerDay");
+        String startTime = field(fields, "startTime");
+        return new MedicationImport(
+                field(fields, "username"),
+                field(fields, "name"),
+                field(fields, "dosageForm"),
+                foodSensitive == null ? null : Boolean.parseBoolean(foodSensitive),
+                dosagesPerDay == null ? null : Integer.valueOf(dosagesPerDay),
+                startTime == null ? null : LocalDateTime.parse(startTime));
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // Comma-separated fields; a quoted field may contain commas and "" for a literal quote
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
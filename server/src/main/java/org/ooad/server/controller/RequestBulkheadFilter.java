@@ -0,0 +1,87 @@
+package org.ooad.server.controller;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps how many API requests run at once. With platform threads Tomcat's pool already does this, so the
+ * bulkhead is off by default (max-concurrent=0). With virtual threads every connection gets a thread, and
+ * without a cap a burst would pile up on the connection pool; here excess requests wait up to max-wait for
+ * a permit and are then answered 503 with Retry-After.
+ * The event stream is exempt because it holds its request open for as long as the page is.
+ */
+@Component
+public class RequestBulkheadFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final long maxWaitNanos;
+    private final Timer waitTime;
+    private final Counter rejected;
+
+    @Autowired
+    public RequestBulkheadFilter(@Value("${medtrack.bulkhead.max-concurrent:0}") int maxConcurrent,
+                                 @Value("${medtrack.bulkhead.max-wait:1s}") Duration maxWait,
+                                 MeterRegistry registry) {
+        this.maxConcurrent = maxConcurrent;
+        this.permits = new Semaphore(Math.max(0, maxConcurrent), true);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.waitTime = Timer.builder("medtrack.bulkhead.wait")
+                .description("Time API requests waited for a bulkhead permit")
+                .register(registry);
+        this.rejected = Counter.builder("medtrack.bulkhead.rejected")
+                .description("API requests answered 503 after waiting max-wait for a permit")
+                .register(registry);
+        Gauge.builder("medtrack.bulkhead.in-use", permits, p -> maxConcurrent - p.availablePermits())
+                .register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return maxConcurrent <= 0 || !uri.startsWith("/api/") || uri.endsWith("/api/medications/stream");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long started = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        waitTime.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            rejected.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            // Async handlers (login, register) release here once they have handed off to the hashing pool
+            permits.release();
+        }
+    }
+}
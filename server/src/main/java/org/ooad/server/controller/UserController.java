@@ -1,42 +1,102 @@
 package org.ooad.server.controller;
 
-import org.ooad.server.model.User;
+import jakarta.servlet.http.HttpServletRequest;
+import org.ooad.server.service.LoginRateLimiter;
 import org.ooad.server.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.security.Principal;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "*")
 public class UserController {
 
     private final UserService userService;
+    private final LoginRateLimiter loginRateLimiter;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, LoginRateLimiter loginRateLimiter) {
         this.userService = userService;
+        this.loginRateLimiter = loginRateLimiter;
     }
 
+    /**
+     * Limited per client address (429 when exceeded); the password is hashed on the hashing pool.
+     */
     @PostMapping("/register")
-    public ResponseEntity<?> registerUser(@RequestParam String username, @RequestParam String password) {
+    public CompletableFuture<ResponseEntity<?>> registerUser(@RequestParam String username, @RequestParam String password,
+                                                             HttpServletRequest request) {
+        Duration wait = loginRateLimiter.tryAcquire(null, request.getRemoteAddr());
+        if (!wait.isZero()) {
+            return CompletableFuture.completedFuture(tooManyAttempts(wait));
+        }
         try {
-            User newUser = userService.registerNewUser(username, password);
-            return ResponseEntity.ok("User registered successfully. ID: " + newUser.getId());
+            return userService.register(username, password)
+                    .<ResponseEntity<?>>thenApply(newUser -> ResponseEntity.ok("User registered successfully. ID: " + newUser.getId()))
+                    .exceptionally(UserController::hashingUnavailable);
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage()));
         }
     }
 
+    /**
+     * Returns a bearer token for the other endpoints. Attempts are limited per username and per client address
+     * (429 when exceeded). The password check runs on the bounded hashing pool, so the request thread is released
+     * while BCrypt works; a saturated pool answers 503.
+     */
     @PostMapping("/login")
-    public ResponseEntity<String> loginUser(@RequestParam String username, @RequestParam String password) {
-        boolean isValid = userService.validateUser(username, password);
+    public CompletableFuture<ResponseEntity<?>> loginUser(@RequestParam String username, @RequestParam String password,
+                                                          HttpServletRequest request) {
+        Duration wait = loginRateLimiter.tryAcquire(username, request.getRemoteAddr());
+        if (!wait.isZero()) {
+            return CompletableFuture.completedFuture(tooManyAttempts(wait));
+        }
+        return userService.login(username, password)
+                .<ResponseEntity<?>>thenApply(token -> token.isPresent()
+                        ? ResponseEntity.ok(token.get())
+                        : ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid username or password."))
+                .exceptionally(UserController::hashingUnavailable);
+    }
+
+    private static ResponseEntity<?> tooManyAttempts(Duration wait) {
+        long seconds = Math.max(1, (wait.toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds))
+                .body("Too many attempts, retry in " + seconds + " s.");
+    }
 
-        if (isValid) {
-            return ResponseEntity.ok("Login successful for user: " + username);
-        } else {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid username or password.");
+    // Pool full or queue wait exceeded -> 503; anything else propagates
+    private static ResponseEntity<?> hashingUnavailable(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof RejectedExecutionException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("Too many logins in progress, please retry.");
+        }
+        throw error instanceof CompletionException ce ? ce : new CompletionException(cause);
+    }
+
+    /**
+     * Sets the signed-in user's reminder email and webhook; the account comes from the access token.
+     */
+    @PutMapping("/contact")
+    public ResponseEntity<String> updateContact(@RequestParam(required = false) String email,
+                                                @RequestParam(required = false) String webhookUrl,
+                                                Principal caller) {
+        try {
+            userService.updateContact(caller.getName(), email, webhookUrl);
+            return ResponseEntity.ok("Contact details updated for user: " + caller.getName());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
-}
\ No newline at end of file
+}
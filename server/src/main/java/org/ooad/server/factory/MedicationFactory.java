@@ -1,6 +1,9 @@
 package org.ooad.server.factory;
 
 import org.ooad.server.model.Medication;
+import org.ooad.server.model.MedicationAttribute;
+
+import java.util.Set;
 
 /**
  * Factory Method Interface.
@@ -17,4 +20,10 @@ public interface MedicationFactory {
      * @return A decorated or base Medication instance.
      */
     Medication createMedication(String name, String dosageForm, boolean isFoodSensitive);
+
+    /**
+     * Creates a Medication with one decorator per requested attribute.
+     * @param attributes The attributes to apply; empty for a standard medication.
+     */
+    Medication createMedication(String name, String dosageForm, Set<MedicationAttribute> attributes);
 }
\ No newline at end of file
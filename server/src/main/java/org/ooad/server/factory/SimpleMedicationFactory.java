@@ -1,10 +1,16 @@
 package org.ooad.server.factory;
 
 import org.ooad.server.model.BaseMedication;
+import org.ooad.server.model.ControlledMedication;
 import org.ooad.server.model.FoodSensitiveMedication;
 import org.ooad.server.model.Medication;
+import org.ooad.server.model.MedicationAttribute;
+import org.ooad.server.model.RefrigeratedMedication;
 import org.springframework.stereotype.Component;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 /**
  * Concrete Factory for creating Medication objects.
  * Uses Dependency Injection via @Component.
@@ -18,10 +24,20 @@ public class SimpleMedicationFactory implements MedicationFactory {
      */
     @Override
     public Medication createMedication(String name, String dosageForm, boolean isFoodSensitive) {
+        return createMedication(name, dosageForm,
+                isFoodSensitive ? EnumSet.of(MedicationAttribute.FOOD_SENSITIVE) : EnumSet.noneOf(MedicationAttribute.class));
+    }
+
+    @Override
+    public Medication createMedication(String name, String dosageForm, Set<MedicationAttribute> attributes) {
         Medication medication = new BaseMedication(name, dosageForm);
 
-        if (isFoodSensitive) {
-            medication = new FoodSensitiveMedication(medication);
+        for (MedicationAttribute attribute : attributes) {
+            medication = switch (attribute) {
+                case FOOD_SENSITIVE -> new FoodSensitiveMedication(medication);
+                case CONTROLLED -> new ControlledMedication(medication);
+                case REFRIGERATED -> new RefrigeratedMedication(medication);
+            };
         }
 
         return medication;
@@ -0,0 +1,70 @@
+package org.ooad.server.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+import java.time.LocalDate;
+
+/**
+ * Per-medication, per-day adherence counters.
+ * Incremented as dose events are written, so reports sum a few rows per day
+ * instead of reading the event history.
+ */
+@Entity
+@Table(name = "adherence_daily",
+        uniqueConstraints = @UniqueConstraint(name = "uk_adherence_medication_date", columnNames = {"medicationId", "doseDate"}),
+        indexes = @Index(name = "idx_adherence_user_date", columnList = "userId, doseDate"))
+public class AdherenceDaily {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "adherence_daily_seq")
+    @SequenceGenerator(name = "adherence_daily_seq", sequenceName = "adherence_daily_seq", allocationSize = 50)
+    private Long id;
+
+    private Long medicationId;
+    private Long userId;
+
+    // Day the dose was scheduled for
+    private LocalDate doseDate;
+
+    private long taken;
+    private long onTime;
+    private long snoozed;
+    private long skipped;
+    private long missed;
+
+    // Summed lateness of taken doses
+    private long totalDelaySeconds;
+
+    public AdherenceDaily() {}
+
+    public AdherenceDaily(Long medicationId, Long userId, LocalDate doseDate,
+                          long taken, long onTime, long snoozed, long skipped, long missed, long totalDelaySeconds) {
+        this.medicationId = medicationId;
+        this.userId = userId;
+        this.doseDate = doseDate;
+        this.taken = taken;
+        this.onTime = onTime;
+        this.snoozed = snoozed;
+        this.skipped = skipped;
+        this.missed = missed;
+        this.totalDelaySeconds = totalDelaySeconds;
+    }
+
+    public Long getId() { return id; }
+    public Long getMedicationId() { return medicationId; }
+    public Long getUserId() { return userId; }
+    public LocalDate getDoseDate() { return doseDate; }
+    public long getTaken() { return taken; }
+    public long getOnTime() { return onTime; }
+    public long getSnoozed() { return snoozed; }
+    public long getSkipped() { return skipped; }
+    public long getMissed() { return missed; }
+    public long getTotalDelaySeconds() { return totalDelaySeconds; }
+}
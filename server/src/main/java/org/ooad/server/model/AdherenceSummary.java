@@ -0,0 +1,40 @@
+package org.ooad.server.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Adherence over a date range, for one medication or for every medication with the same name across a cohort.
+ * Built directly by aggregate queries over AdherenceDaily.
+ */
+public record AdherenceSummary(Long medicationId, String name, long patients,
+                               long taken, long onTime, long snoozed, long skipped, long missed,
+                               long totalDelaySeconds) {
+
+    // One user's medication
+    public AdherenceSummary(Long medicationId, String name,
+                            long taken, long onTime, long snoozed, long skipped, long missed, long totalDelaySeconds) {
+        this(medicationId, name, 1, taken, onTime, snoozed, skipped, missed, totalDelaySeconds);
+    }
+
+    // A medication name across many users
+    public AdherenceSummary(String name, long patients,
+                            long taken, long onTime, long snoozed, long skipped, long missed, long totalDelaySeconds) {
+        this(null, name, patients, taken, onTime, snoozed, skipped, missed, totalDelaySeconds);
+    }
+
+    // Doses that came due and were resolved one way or another; snoozes only postpone
+    @JsonProperty
+    public long scheduled() {
+        return taken + skipped + missed;
+    }
+
+    @JsonProperty
+    public double onTimeRate() {
+        return scheduled() == 0 ? 0.0 : (double) onTime / scheduled();
+    }
+
+    @JsonProperty
+    public double averageDelayMinutes() {
+        return taken == 0 ? 0.0 : totalDelaySeconds / 60.0 / taken;
+    }
+}
@@ -4,26 +4,46 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(indexes = {
+        // Range scans for the reminder scheduler
+        @Index(name = "idx_medication_next_due", columnList = "nextDueTime"),
+        // Per-user lists; the trailing due time also serves per-user "next dose" ordering
+        @Index(name = "idx_medication_user_due", columnList = "userId, nextDueTime")
+})
 public class BaseMedication implements Medication {
 
+    // Sequence (not identity) ids let Hibernate batch inserts; ids are reserved 50 at a time
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "medication_seq")
+    @SequenceGenerator(name = "medication_seq", sequenceName = "medication_seq", allocationSize = 50)
     private Long id;
 
     private String name;
     private String dosageForm;
     private LocalDateTime nextDueTime;
+
+    // When the current dose was scheduled; snoozing moves nextDueTime but leaves this alone,
+    // so dose events and adherence are measured against the schedule
+    private LocalDateTime scheduledFor;
     private int dosagesPerDay = 1;
 
-    // Store attributes (e.g., "Food Sensitive")
-    private String attributes = "Standard";
+    // MedicationAttribute bits (e.g. food sensitive); 0 is "Standard"
+    private int attributeFlags;
 
     // User ID to separate lists
     private Long userId;
 
+    // Optimistic locking: a stale load-modify-save fails instead of overwriting a newer change
+    @Version
+    private Long version;
+
     public BaseMedication() {}
 
     public BaseMedication(String name, String dosageForm, int dosagesPerDay) {
@@ -31,6 +51,7 @@ public class BaseMedication implements Medication {
         this.dosageForm = dosageForm;
         this.dosagesPerDay = dosagesPerDay;
         this.nextDueTime = LocalDateTime.now().plusSeconds(10);
+        this.scheduledFor = nextDueTime;
     }
 
     public BaseMedication(String name, String dosageForm) {
@@ -50,16 +71,38 @@ public class BaseMedication implements Medication {
     public void setDosageForm(String dosageForm) { this.dosageForm = dosageForm; }
 
     @Override
-    public String getAttributes() { return attributes; }
-    public void setAttributes(String attributes) { this.attributes = attributes; }
+    public int getAttributeFlags() { return attributeFlags; }
+    public void setAttributeFlags(int attributeFlags) { this.attributeFlags = attributeFlags; }
 
     @Override
     public LocalDateTime getNextDueTime() { return nextDueTime; }
-    public void setNextDueTime(LocalDateTime nextDueTime) { this.nextDueTime = nextDueTime; }
+    /**
+     * Moves on to a new dose: it is both due and scheduled at the given time.
+     */
+    public void setNextDueTime(LocalDateTime nextDueTime) {
+        this.nextDueTime = nextDueTime;
+        this.scheduledFor = nextDueTime;
+    }
+
+    /**
+     * Postpones the current dose; it stays scheduled for its original time.
+     */
+    public void snoozeUntil(LocalDateTime time) {
+        if (scheduledFor == null) {
+            scheduledFor = nextDueTime;
+        }
+        this.nextDueTime = time;
+    }
+
+    public LocalDateTime getScheduledFor() { return scheduledFor != null ? scheduledFor : nextDueTime; }
 
     public int getDosagesPerDay() { return dosagesPerDay; }
     public void setDosagesPerDay(int dosagesPerDay) { this.dosagesPerDay = dosagesPerDay; }
 
+    @Override
     public Long getUserId() { return userId; }
     public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
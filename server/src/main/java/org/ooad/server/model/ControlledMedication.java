@@ -0,0 +1,16 @@
+package org.ooad.server.model;
+
+/**
+ * Concrete Decorator 2: Marks a controlled substance.
+ */
+public class ControlledMedication extends MedicationDecorator {
+
+    public ControlledMedication(Medication decoratedMedication) {
+        super(decoratedMedication);
+    }
+
+    @Override
+    public int getAttributeFlags() {
+        return decoratedMedication.getAttributeFlags() | MedicationAttribute.CONTROLLED.bit();
+    }
+}
@@ -0,0 +1,54 @@
+package org.ooad.server.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+
+import java.time.LocalDateTime;
+
+/**
+ * A reminder that a channel gave up on after its last retry, kept for inspection or replay.
+ */
+@Entity
+public class DeadLetterNotification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String channel;
+    private Long userId;
+    private String recipient;
+
+    @Column(length = 4000)
+    private String payload;
+
+    @Column(length = 1000)
+    private String error;
+
+    private int attempts;
+    private LocalDateTime failedAt;
+
+    public DeadLetterNotification() {}
+
+    public DeadLetterNotification(String channel, Long userId, String recipient, String payload, String error, int attempts) {
+        this.channel = channel;
+        this.userId = userId;
+        this.recipient = recipient;
+        this.payload = payload;
+        this.error = error;
+        this.attempts = attempts;
+        this.failedAt = LocalDateTime.now();
+    }
+
+    public Long getId() { return id; }
+    public String getChannel() { return channel; }
+    public Long getUserId() { return userId; }
+    public String getRecipient() { return recipient; }
+    public String getPayload() { return payload; }
+    public String getError() { return error; }
+    public int getAttempts() { return attempts; }
+    public LocalDateTime getFailedAt() { return failedAt; }
+}
@@ -0,0 +1,74 @@
+package org.ooad.server.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Append-only record of what happened to a scheduled dose.
+ * Rows are never updated. eventDate is the partition key: every index leads with
+ * (owner, eventDate), so a date-range read only touches that range of days,
+ * and old days can be dropped as a whole.
+ */
+@Entity
+@Table(name = "dose_event", indexes = {
+        @Index(name = "idx_dose_event_user_date", columnList = "userId, eventDate"),
+        @Index(name = "idx_dose_event_medication_date", columnList = "medicationId, eventDate"),
+        @Index(name = "idx_dose_event_date", columnList = "eventDate")
+})
+public class DoseEvent {
+
+    public enum Type { TAKEN, SNOOZED, SKIPPED, MISSED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "dose_event_seq")
+    @SequenceGenerator(name = "dose_event_seq", sequenceName = "dose_event_seq", allocationSize = 500)
+    private Long id;
+
+    private Long medicationId;
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    private Type type;
+
+    // The due time this event refers to, and when it actually happened
+    private LocalDateTime scheduledFor;
+    private LocalDateTime occurredAt;
+
+    private LocalDate eventDate;
+
+    public DoseEvent() {}
+
+    public DoseEvent(Long medicationId, Long userId, Type type, LocalDateTime scheduledFor, LocalDateTime occurredAt) {
+        this.medicationId = medicationId;
+        this.userId = userId;
+        this.type = type;
+        this.scheduledFor = scheduledFor;
+        this.occurredAt = occurredAt;
+        this.eventDate = occurredAt.toLocalDate();
+    }
+
+    /**
+     * The same event without an id, ready to be persisted as a new row.
+     */
+    public DoseEvent copy() {
+        return new DoseEvent(medicationId, userId, type, scheduledFor, occurredAt);
+    }
+
+    public Long getId() { return id; }
+    public Long getMedicationId() { return medicationId; }
+    public Long getUserId() { return userId; }
+    public Type getType() { return type; }
+    public LocalDateTime getScheduledFor() { return scheduledFor; }
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+    public LocalDate getEventDate() { return eventDate; }
+}
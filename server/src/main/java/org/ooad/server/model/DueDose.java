@@ -0,0 +1,10 @@
+package org.ooad.server.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the clinician dashboard: a dose due (or overdue) for one of the requested patients.
+ */
+public record DueDose(Long medicationId, Long userId, String username, String name, String dosageForm,
+                      LocalDateTime dueTime, boolean overdue) {
+}
@@ -10,12 +10,7 @@ public class FoodSensitiveMedication extends MedicationDecorator {
     }
 
     @Override
-    public String getAttributes() {
-        String baseAttributes = decoratedMedication.getAttributes();
-        if ("Standard".equals(baseAttributes)) {
-            return "Food Sensitive (Take with food)";
-        } else {
-            return baseAttributes + ", Food Sensitive (Take with food)";
-        }
+    public int getAttributeFlags() {
+        return decoratedMedication.getAttributeFlags() | MedicationAttribute.FOOD_SENSITIVE.bit();
     }
-}
\ No newline at end of file
+}
@@ -10,6 +10,18 @@ public interface Medication {
     Long getId();
     String getName();
     String getDosageForm();
-    String getAttributes();
+    int getAttributeFlags();
     LocalDateTime getNextDueTime();
+    Long getUserId();
+
+    /**
+     * Display text for the attribute flags, e.g. "Standard" or "Food Sensitive (Take with food)".
+     */
+    default String getAttributes() {
+        return MedicationAttribute.describe(getAttributeFlags());
+    }
+
+    default boolean has(MedicationAttribute attribute) {
+        return attribute.isSetIn(getAttributeFlags());
+    }
 }
\ No newline at end of file
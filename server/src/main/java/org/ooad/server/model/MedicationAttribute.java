@@ -0,0 +1,78 @@
+package org.ooad.server.model;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Handling attributes a decorator can add to a medication.
+ * Stored as one bit each in BaseMedication.attributeFlags; the display text for every
+ * combination is built once here, so getAttributes() never concatenates.
+ */
+public enum MedicationAttribute {
+
+    FOOD_SENSITIVE("Food Sensitive (Take with food)"),
+    CONTROLLED("Controlled Substance"),
+    REFRIGERATED("Keep Refrigerated");
+
+    public static final String STANDARD = "Standard";
+
+    private static final String[] DESCRIPTIONS = new String[1 << values().length];
+
+    static {
+        for (int flags = 0; flags < DESCRIPTIONS.length; flags++) {
+            StringBuilder text = new StringBuilder();
+            for (MedicationAttribute attribute : values()) {
+                if (attribute.isSetIn(flags)) {
+                    if (!text.isEmpty()) {
+                        text.append(", ");
+                    }
+                    text.append(attribute.label);
+                }
+            }
+            DESCRIPTIONS[flags] = text.isEmpty() ? STANDARD : text.toString();
+        }
+    }
+
+    private final String label;
+
+    MedicationAttribute(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    public boolean isSetIn(int flags) {
+        return (flags & bit()) != 0;
+    }
+
+    public static int toFlags(Set<MedicationAttribute> attributes) {
+        int flags = 0;
+        for (MedicationAttribute attribute : attributes) {
+            flags |= attribute.bit();
+        }
+        return flags;
+    }
+
+    public static Set<MedicationAttribute> fromFlags(int flags) {
+        EnumSet<MedicationAttribute> attributes = EnumSet.noneOf(MedicationAttribute.class);
+        for (MedicationAttribute attribute : values()) {
+            if (attribute.isSetIn(flags)) {
+                attributes.add(attribute);
+            }
+        }
+        return attributes;
+    }
+
+    /**
+     * "Standard" for no attributes, otherwise the labels joined with ", ". Unknown bits are ignored.
+     */
+    public static String describe(int flags) {
+        return DESCRIPTIONS[flags & (DESCRIPTIONS.length - 1)];
+    }
+}
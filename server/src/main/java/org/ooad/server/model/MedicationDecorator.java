@@ -39,5 +39,10 @@ public abstract class MedicationDecorator implements Medication {
     }
 
     @Override
-    public abstract String getAttributes();
+    public Long getUserId() {
+        return decoratedMedication.getUserId();
+    }
+
+    @Override
+    public abstract int getAttributeFlags();
 }
\ No newline at end of file
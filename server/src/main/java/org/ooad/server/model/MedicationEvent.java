@@ -0,0 +1,25 @@
+package org.ooad.server.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change to one of a user's medications, pushed to connected clients as a delta.
+ * For REMOVED events only the id is set; when only the due time changed
+ * (single-statement take/snooze) medication is null and nextDueTime carries the new value.
+ */
+public record MedicationEvent(Type type, Long medicationId, Medication medication, LocalDateTime nextDueTime) {
+
+    public enum Type { ADDED, UPDATED, REMOVED, TAKEN, SNOOZED, DUE, MISSED }
+
+    public static MedicationEvent of(Type type, Medication medication) {
+        return new MedicationEvent(type, medication.getId(), medication, medication.getNextDueTime());
+    }
+
+    public static MedicationEvent dueTimeChanged(Type type, Long medicationId, LocalDateTime nextDueTime) {
+        return new MedicationEvent(type, medicationId, null, nextDueTime);
+    }
+
+    public static MedicationEvent removed(Long medicationId) {
+        return new MedicationEvent(Type.REMOVED, medicationId, null, null);
+    }
+}
@@ -0,0 +1,7 @@
+package org.ooad.server.model;
+
+/**
+ * The display columns of a medication and its owner, read by a constructor query.
+ */
+public record MedicationLabel(Long id, String name, String dosageForm, String username) {
+}
@@ -0,0 +1,22 @@
+package org.ooad.server.model;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only listing row, built directly by a constructor query so no entity is hydrated.
+ * Serialized through the "medicationFields" filter, which drops any fields the client did not ask for.
+ */
+@JsonFilter(MedicationSummary.FIELD_FILTER)
+public record MedicationSummary(Long id, String name, String dosageForm, LocalDateTime nextDueTime,
+                                int dosagesPerDay, int attributeFlags) {
+
+    public static final String FIELD_FILTER = "medicationFields";
+
+    @JsonProperty
+    public String attributes() {
+        return MedicationAttribute.describe(attributeFlags);
+    }
+}
@@ -0,0 +1,16 @@
+package org.ooad.server.model;
+
+/**
+ * Concrete Decorator 3: Must be kept refrigerated.
+ */
+public class RefrigeratedMedication extends MedicationDecorator {
+
+    public RefrigeratedMedication(Medication decoratedMedication) {
+        super(decoratedMedication);
+    }
+
+    @Override
+    public int getAttributeFlags() {
+        return decoratedMedication.getAttributeFlags() | MedicationAttribute.REFRIGERATED.bit();
+    }
+}
@@ -0,0 +1,36 @@
+package org.ooad.server.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight view of a medication's next dose.
+ * Used by the scheduler's in-memory index so it never has to hold full entities.
+ * dosagesPerDay lets "take" compute the next due time without loading the row, and scheduledFor
+ * (the original time of a snoozed dose, otherwise dueTime) lets it record the event without one either.
+ */
+public record ScheduledDose(Long medicationId, Long userId, LocalDateTime dueTime, int dosagesPerDay,
+                            LocalDateTime scheduledFor) {
+
+    public ScheduledDose(Long medicationId, Long userId, LocalDateTime dueTime, int dosagesPerDay) {
+        this(medicationId, userId, dueTime, dosagesPerDay, dueTime);
+    }
+
+    public static ScheduledDose of(BaseMedication medication) {
+        return new ScheduledDose(medication.getId(), medication.getUserId(),
+                medication.getNextDueTime(), medication.getDosagesPerDay(), medication.getScheduledFor());
+    }
+
+    /**
+     * The next dose, due and scheduled at newDueTime.
+     */
+    public ScheduledDose withDueTime(LocalDateTime newDueTime) {
+        return new ScheduledDose(medicationId, userId, newDueTime, dosagesPerDay, newDueTime);
+    }
+
+    /**
+     * The same dose, postponed; it stays scheduled for its original time.
+     */
+    public ScheduledDose snoozedUntil(LocalDateTime newDueTime) {
+        return new ScheduledDose(medicationId, userId, newDueTime, dosagesPerDay, scheduledFor);
+    }
+}
@@ -4,8 +4,11 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 
 @Entity(name = "app_user")
+@Table(indexes = @Index(name = "uk_app_user_username", columnList = "username", unique = true))
 public class User {
 
     @Id
@@ -16,6 +19,10 @@ public class User {
     private String password;
     private String roles = "USER";
 
+    // Optional reminder channels; null means the channel is not used for this user
+    private String email;
+    private String webhookUrl;
+
     public User() {}
 
     public User(String username, String password) {
@@ -31,4 +38,8 @@ public class User {
     public void setPassword(String password) { this.password = password; }
     public String getRoles() { return roles; }
     public void setRoles(String roles) { this.roles = roles; }
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+    public String getWebhookUrl() { return webhookUrl; }
+    public void setWebhookUrl(String webhookUrl) { this.webhookUrl = webhookUrl; }
 }
\ No newline at end of file
@@ -0,0 +1,129 @@
+package org.ooad.server.observer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Decides what an overdue dose is owed on each reminder tick:
+ * a first alert, re-alerts on a doubling backoff, then a single MISSED transition after the grace window.
+ * Everything in between is suppressed, so observers see each transition once instead of every tick.
+ * A MISSED transition that could not be handed to the observers is undone with missedNotDelivered,
+ * so the next tick owes it again.
+ * State is a few primitives per overdue medication and is dropped as soon as the dose stops being due.
+ */
+@Component
+public class DoseEscalation {
+
+    public enum Step { NONE, ALERT, MISSED }
+
+    private static final class State {
+        final long dueSecond;
+        long nextAlertSecond;
+        int alerts;
+        boolean missed;
+        long lastSeenTick;
+
+        State(long dueSecond) {
+            this.dueSecond = dueSecond;
+        }
+    }
+
+    private final Map<Long, State> states = new HashMap<>();
+    private final long renotifySeconds;
+    private final long maxRenotifySeconds;
+    private final long graceSeconds;
+    private long tick;
+
+    private final Counter alerts;
+    private final Counter suppressed;
+    private final Counter missed;
+
+    @Autowired
+    public DoseEscalation(@Value("${medtrack.reminders.renotify-after:5m}") Duration renotifyAfter,
+                          @Value("${medtrack.reminders.renotify-max:30m}") Duration renotifyMax,
+                          @Value("${medtrack.reminders.missed-after:2h}") Duration missedAfter,
+                          MeterRegistry registry) {
+        this.renotifySeconds = Math.max(1, renotifyAfter.toSeconds());
+        this.maxRenotifySeconds = Math.max(renotifySeconds, renotifyMax.toSeconds());
+        this.graceSeconds = missedAfter.toSeconds();
+        this.alerts = Counter.builder("medtrack.reminders.alerts").register(registry);
+        this.suppressed = Counter.builder("medtrack.reminders.suppressed")
+                .description("Ticks on which an overdue dose was not re-notified")
+                .register(registry);
+        this.missed = Counter.builder("medtrack.reminders.missed").register(registry);
+        Gauge.builder("medtrack.reminders.escalations", this, DoseEscalation::size).register(registry);
+    }
+
+    /**
+     * Starts a sweep over the currently due doses; pair with endTick once they have all been passed to next.
+     */
+    public synchronized void beginTick() {
+        tick++;
+    }
+
+    public synchronized Step next(Long medicationId, LocalDateTime dueTime, LocalDateTime now) {
+        long due = toSecond(dueTime);
+        long current = toSecond(now);
+        State state = states.get(medicationId);
+        if (state == null || state.dueSecond != due) {
+            // First sighting of this due time (new dose, or taken/snoozed since)
+            state = new State(due);
+            states.put(medicationId, state);
+        }
+        state.lastSeenTick = tick;
+
+        if (state.missed) {
+            suppressed.increment();
+            return Step.NONE;
+        }
+        if (current - due >= graceSeconds) {
+            state.missed = true;
+            missed.increment();
+            return Step.MISSED;
+        }
+        if (state.alerts == 0 || current >= state.nextAlertSecond) {
+            long backoff = Math.min(maxRenotifySeconds, renotifySeconds << Math.min(state.alerts, 20));
+            state.alerts++;
+            state.nextAlertSecond = current + backoff;
+            alerts.increment();
+            return Step.ALERT;
+        }
+        suppressed.increment();
+        return Step.NONE;
+    }
+
+    /**
+     * The MISSED notice for this dose was not dispatched (queue full); offer it again on the next tick.
+     */
+    public synchronized void missedNotDelivered(Long medicationId) {
+        State state = states.get(medicationId);
+        if (state != null) {
+            state.missed = false;
+        }
+    }
+
+    /**
+     * Forgets doses that were not seen since beginTick, i.e. ones that are no longer due.
+     */
+    public synchronized void endTick() {
+        states.values().removeIf(state -> state.lastSeenTick != tick);
+    }
+
+    public synchronized int size() {
+        return states.size();
+    }
+
+    private static long toSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+}
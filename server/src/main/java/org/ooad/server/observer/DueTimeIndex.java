@@ -0,0 +1,114 @@
+package org.ooad.server.observer;
+
+import org.ooad.server.model.BaseMedication;
+import org.ooad.server.model.ScheduledDose;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory priority index of upcoming doses, ordered by due time.
+ * Loaded once at startup by the ReminderSystem and kept current by MedicationService,
+ * so a scheduler tick only visits the medications that are actually due.
+ */
+@Component
+public class DueTimeIndex {
+
+    private static final Comparator<ScheduledDose> DUE_ORDER =
+            Comparator.comparing(ScheduledDose::dueTime).thenComparing(ScheduledDose::medicationId);
+
+    private final NavigableSet<ScheduledDose> byDueTime = new ConcurrentSkipListSet<>(DUE_ORDER);
+    private final Map<Long, ScheduledDose> byId = new ConcurrentHashMap<>();
+
+    /**
+     * Adds or moves a medication to its current due time.
+     */
+    public void schedule(BaseMedication medication) {
+        if (medication.getId() == null) {
+            return;
+        }
+        if (medication.getNextDueTime() == null) {
+            remove(medication.getId());
+            return;
+        }
+        schedule(ScheduledDose.of(medication));
+    }
+
+    /**
+     * Adds or moves a dose whose new due time is already known (e.g. after a single-statement update).
+     */
+    public void schedule(ScheduledDose dose) {
+        if (dose.dueTime() == null) {
+            remove(dose.medicationId());
+            return;
+        }
+        // compute() serialises updates per medication, so the set never holds two entries for one id
+        byId.compute(dose.medicationId(), (id, previous) -> {
+            if (previous != null) {
+                byDueTime.remove(previous);
+            }
+            byDueTime.add(dose);
+            return dose;
+        });
+    }
+
+    /**
+     * Loads a dose read from the database without overwriting a newer in-memory update.
+     */
+    public void load(ScheduledDose dose) {
+        if (dose.dueTime() == null) {
+            return;
+        }
+        byId.computeIfAbsent(dose.medicationId(), id -> {
+            byDueTime.add(dose);
+            return dose;
+        });
+    }
+
+    public void remove(Long medicationId) {
+        byId.computeIfPresent(medicationId, (id, previous) -> {
+            byDueTime.remove(previous);
+            return null;
+        });
+    }
+
+    /**
+     * Snapshot of every dose due strictly before the given time, earliest first.
+     */
+    public List<ScheduledDose> dueBefore(LocalDateTime time) {
+        ScheduledDose bound = new ScheduledDose(Long.MIN_VALUE, null, time, 0);
+        return new ArrayList<>(byDueTime.headSet(bound, false));
+    }
+
+    /**
+     * Doses due in [from, to) that belong to one of the given users, earliest first.
+     * Only the entries inside the time window are visited, however many users or doses the index holds.
+     */
+    public List<ScheduledDose> dueBetween(LocalDateTime from, LocalDateTime to, Set<Long> userIds) {
+        ScheduledDose lower = new ScheduledDose(Long.MIN_VALUE, null, from, 0);
+        ScheduledDose upper = new ScheduledDose(Long.MIN_VALUE, null, to, 0);
+        List<ScheduledDose> due = new ArrayList<>();
+        for (ScheduledDose dose : byDueTime.subSet(lower, true, upper, false)) {
+            if (userIds.contains(dose.userId())) {
+                due.add(dose);
+            }
+        }
+        return due;
+    }
+
+    public ScheduledDose get(Long medicationId) {
+        return byId.get(medicationId);
+    }
+
+    public int size() {
+        return byId.size();
+    }
+}
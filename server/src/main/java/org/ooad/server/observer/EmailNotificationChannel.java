@@ -0,0 +1,75 @@
+package org.ooad.server.observer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.ooad.server.model.User;
+import org.ooad.server.repository.DeadLetterNotificationRepository;
+import org.ooad.server.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Emails each user one digest per batch window. SMTP is blocking,
+ * so sends run on a small dedicated pool instead of the dispatch workers.
+ */
+@Component
+@ConditionalOnProperty(name = "medtrack.notifications.email.enabled", havingValue = "true")
+public class EmailNotificationChannel extends NotificationChannel {
+
+    private final JavaMailSender mailSender;
+    private final String from;
+    private final ExecutorService senders;
+
+    @Autowired
+    public EmailNotificationChannel(ReminderSystem reminderSystem,
+                                    UserRepository userRepository,
+                                    DeadLetterNotificationRepository deadLetters,
+                                    JavaMailSender mailSender,
+                                    @Value("${medtrack.notifications.email.from:reminders@medtrack.local}") String from,
+                                    @Value("${medtrack.notifications.email.senders:2}") int senderThreads,
+                                    @Value("${medtrack.notifications.batch-window:2s}") Duration batchWindow,
+                                    @Value("${medtrack.notifications.max-attempts:4}") int maxAttempts,
+                                    @Value("${medtrack.notifications.retry-delay:1s}") Duration retryDelay,
+                                    MeterRegistry registry) {
+        super("email", reminderSystem, userRepository, deadLetters, batchWindow, maxAttempts, retryDelay, registry);
+        this.mailSender = mailSender;
+        this.from = from;
+        this.senders = Executors.newFixedThreadPool(Math.max(1, senderThreads), runnable -> {
+            Thread thread = new Thread(runnable, "email-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    protected String recipientOf(User user) {
+        return user.getEmail();
+    }
+
+    @Override
+    protected CompletableFuture<Void> deliver(User user, String recipient, List<Notice> notices) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(from);
+        message.setTo(recipient);
+        message.setSubject(notices.size() == 1
+                ? "MedTrack reminder: " + notices.get(0).medication()
+                : "MedTrack reminders: " + notices.size() + " doses");
+        message.setText("Hi " + user.getUsername() + ",\n\n" + describe(notices));
+        return CompletableFuture.runAsync(() -> mailSender.send(message), senders);
+    }
+
+    @Override
+    public void shutdown() {
+        super.shutdown();
+        senders.shutdown();
+    }
+}
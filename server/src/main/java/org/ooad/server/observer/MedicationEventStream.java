@@ -0,0 +1,172 @@
+package org.ooad.server.observer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.ooad.server.model.Medication;
+import org.ooad.server.model.MedicationEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes medication changes to connected clients over Server-Sent Events.
+ * Registered as a ReminderObserver for DUE events; MedicationService publishes the mutations.
+ * Clients do one full load when they connect and then apply these deltas.
+ * Events are written by sender threads, never by the request or dispatch thread that published them:
+ * like ReminderDispatcher, users are sharded across single-threaded senders with bounded queues, so one
+ * user's events stay in order and a slow client only delays its own shard. If a shard's queue is full the
+ * user's streams are closed instead, so their clients reconnect and reload rather than miss a delta.
+ */
+@Service
+public class MedicationEventStream implements ReminderObserver {
+
+    // Clients reconnect automatically when an emitter times out
+    private static final long EMITTER_TIMEOUT_MS = 30 * 60 * 1000L;
+
+    private final Map<Long, List<SseEmitter>> emittersByUser = new ConcurrentHashMap<>();
+    private final ReminderSystem reminderSystem;
+    private final ThreadPoolExecutor[] senders;
+    private final Counter dropped;
+
+    @Autowired
+    public MedicationEventStream(ReminderSystem reminderSystem,
+                                 @Value("${medtrack.stream.senders:2}") int senders,
+                                 @Value("${medtrack.stream.queue-capacity:1000}") int queueCapacity,
+                                 MeterRegistry registry) {
+        this.reminderSystem = reminderSystem;
+        this.senders = new ThreadPoolExecutor[Math.max(1, senders)];
+        for (int i = 0; i < this.senders.length; i++) {
+            String threadName = "event-stream-" + i;
+            ThreadPoolExecutor sender = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, threadName);
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy());
+            this.senders[i] = sender;
+            Gauge.builder("medtrack.stream.queue.depth", sender, s -> s.getQueue().size())
+                    .description("Events waiting to be sent by a stream sender")
+                    .tag("sender", String.valueOf(i))
+                    .register(registry);
+        }
+        this.dropped = Counter.builder("medtrack.stream.dropped")
+                .description("Events not sent because their sender queue was full; the user's streams were closed")
+                .register(registry);
+        Gauge.builder("medtrack.stream.connections", this, MedicationEventStream::connectionCount).register(registry);
+    }
+
+    @PostConstruct
+    public void init() {
+        this.reminderSystem.attach(this);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        emittersByUser.compute(userId, (id, emitters) -> {
+            List<SseEmitter> list = emitters != null ? emitters : new CopyOnWriteArrayList<>();
+            list.add(emitter);
+            return list;
+        });
+        emitter.onCompletion(() -> unsubscribe(userId, emitter));
+        emitter.onTimeout(() -> unsubscribe(userId, emitter));
+        emitter.onError(e -> unsubscribe(userId, emitter));
+        return emitter;
+    }
+
+    /**
+     * Queues the event for the user's open streams and returns at once; a no-op if they have none.
+     */
+    public void publish(Long userId, MedicationEvent event) {
+        if (!emittersByUser.containsKey(userId)) {
+            return;
+        }
+        try {
+            senderFor(userId).execute(() -> send(userId, event));
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+            List<SseEmitter> emitters = emittersByUser.remove(userId);
+            if (emitters != null) {
+                emitters.forEach(SseEmitter::complete);
+            }
+        }
+    }
+
+    private void send(Long userId, MedicationEvent event) {
+        List<SseEmitter> emitters = emittersByUser.get(userId);
+        if (emitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event()
+                        .name(event.type().name())
+                        .data(event, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; drop it rather than failing the publisher
+                unsubscribe(userId, emitter);
+            }
+        }
+    }
+
+    @Override
+    public void update(Medication medication) {
+        publish(medication.getUserId(), MedicationEvent.of(MedicationEvent.Type.DUE, medication));
+    }
+
+    public int connectionCount() {
+        return emittersByUser.values().stream().mapToInt(List::size).sum();
+    }
+
+    /**
+     * Comment-only heartbeat keeps idle connections open through proxies and detects dead clients.
+     */
+    @Scheduled(fixedRate = 25000)
+    public void heartbeat() {
+        emittersByUser.forEach((userId, emitters) -> {
+            for (SseEmitter emitter : emitters) {
+                try {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                } catch (IOException | IllegalStateException e) {
+                    unsubscribe(userId, emitter);
+                }
+            }
+        });
+    }
+
+    private ThreadPoolExecutor senderFor(Long userId) {
+        int hash = userId == null ? 0 : Long.hashCode(userId);
+        return senders[Math.floorMod(hash, senders.length)];
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor sender : senders) {
+            sender.shutdown();
+        }
+    }
+
+    private void unsubscribe(Long userId, SseEmitter emitter) {
+        emittersByUser.computeIfPresent(userId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
@@ -0,0 +1,183 @@
+package org.ooad.server.observer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.ooad.server.model.DeadLetterNotification;
+import org.ooad.server.model.Medication;
+import org.ooad.server.model.User;
+import org.ooad.server.repository.DeadLetterNotificationRepository;
+import org.ooad.server.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base for observers that deliver reminders outside the app (email, webhook).
+ * update/missed only queue the notice, so dispatch workers never wait on the network.
+ * Every batch window the queue is flushed as one message per user, delivered asynchronously;
+ * failed deliveries are retried with exponential backoff and full jitter, then stored as dead letters.
+ */
+public abstract class NotificationChannel implements ReminderObserver {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationChannel.class);
+
+    public enum Kind { DUE, MISSED }
+
+    public record Notice(Kind kind, String medication, String dosageForm, LocalDateTime dueTime) {}
+
+    private final String name;
+    private final ReminderSystem reminderSystem;
+    private final UserRepository userRepository;
+    private final DeadLetterNotificationRepository deadLetters;
+    private final Duration batchWindow;
+    private final int maxAttempts;
+    private final long retryDelayMs;
+
+    // Flush timer and retry timer; actual I/O runs on the subclass's client threads
+    private final ScheduledExecutorService scheduler;
+
+    private Map<Long, List<Notice>> pending = new HashMap<>();
+
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter deadLettered;
+
+    protected NotificationChannel(String name, ReminderSystem reminderSystem, UserRepository userRepository,
+                                  DeadLetterNotificationRepository deadLetters, Duration batchWindow,
+                                  int maxAttempts, Duration retryDelay, MeterRegistry registry) {
+        this.name = name;
+        this.reminderSystem = reminderSystem;
+        this.userRepository = userRepository;
+        this.deadLetters = deadLetters;
+        this.batchWindow = batchWindow;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryDelayMs = Math.max(1, retryDelay.toMillis());
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name + "-notifications");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sent = Counter.builder("medtrack.notifications.sent").tag("channel", name).register(registry);
+        this.retried = Counter.builder("medtrack.notifications.retried").tag("channel", name).register(registry);
+        this.deadLettered = Counter.builder("medtrack.notifications.dead-lettered").tag("channel", name).register(registry);
+    }
+
+    @PostConstruct
+    public void init() {
+        long window = Math.max(1, batchWindow.toMillis());
+        scheduler.scheduleWithFixedDelay(this::flush, window, window, TimeUnit.MILLISECONDS);
+        reminderSystem.attach(this);
+    }
+
+    @Override
+    public void update(Medication medication) {
+        enqueue(medication, Kind.DUE);
+    }
+
+    @Override
+    public void missed(Medication medication) {
+        enqueue(medication, Kind.MISSED);
+    }
+
+    /**
+     * Where this channel reaches the user, or null if the user has not set it up.
+     */
+    protected abstract String recipientOf(User user);
+
+    /**
+     * Sends one coalesced message; the future completes exceptionally if delivery failed.
+     */
+    protected abstract CompletableFuture<Void> deliver(User user, String recipient, List<Notice> notices);
+
+    /**
+     * Sends everything queued so far, one message per user. Normally driven by the batch window timer.
+     */
+    public void flush() {
+        Map<Long, List<Notice>> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new HashMap<>();
+        }
+        try {
+            for (User user : userRepository.findAllById(batch.keySet())) {
+                String recipient = recipientOf(user);
+                if (recipient != null && !recipient.isBlank()) {
+                    send(user, recipient, batch.get(user.getId()), 1);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Notification flush failed on {}: {}", name, e.getMessage());
+        }
+    }
+
+    protected static String describe(List<Notice> notices) {
+        StringBuilder text = new StringBuilder();
+        for (Notice notice : notices) {
+            text.append(notice.kind() == Kind.MISSED ? "Missed: " : "Time to take: ")
+                    .append(notice.medication()).append(" (").append(notice.dosageForm()).append(")")
+                    .append(", due ").append(notice.dueTime()).append('\n');
+        }
+        return text.toString();
+    }
+
+    private synchronized void enqueue(Medication medication, Kind kind) {
+        if (medication.getUserId() != null) {
+            pending.computeIfAbsent(medication.getUserId(), id -> new ArrayList<>())
+                    .add(new Notice(kind, medication.getName(), medication.getDosageForm(), medication.getNextDueTime()));
+        }
+    }
+
+    private void send(User user, String recipient, List<Notice> notices, int attempt) {
+        CompletableFuture<Void> delivery;
+        try {
+            delivery = deliver(user, recipient, notices);
+        } catch (RuntimeException e) {
+            delivery = CompletableFuture.failedFuture(e);
+        }
+        delivery.whenComplete((ignored, error) -> {
+            if (error == null) {
+                sent.increment();
+            } else if (attempt < maxAttempts) {
+                retried.increment();
+                scheduler.schedule(() -> send(user, recipient, notices, attempt + 1), backoff(attempt), TimeUnit.MILLISECONDS);
+            } else {
+                deadLettered.increment();
+                deadLetters.save(new DeadLetterNotification(name, user.getId(), recipient,
+                        truncate(describe(notices), 4000), truncate(String.valueOf(error), 1000), attempt));
+            }
+        });
+    }
+
+    // Full jitter: uniform in [0, retryDelay * 2^(attempt-1)], so retries from many users spread out
+    private long backoff(int attempt) {
+        long ceiling = retryDelayMs << Math.min(attempt - 1, 16);
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static String truncate(String value, int max) {
+        return value.length() <= max ? value : value.substring(0, max);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reminderSystem.detach(this);
+        flush();
+        scheduler.shutdown();
+    }
+}
@@ -2,6 +2,8 @@ package org.ooad.server.observer;
 
 import jakarta.annotation.PostConstruct;
 import org.ooad.server.model.Medication;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -11,6 +13,8 @@ import org.springframework.stereotype.Service;
 @Service
 public class NotificationService implements ReminderObserver {
 
+    private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
+
     private final ReminderSystem reminderSystem;
 
     // Use DI to get the Subject (ReminderSystem)
@@ -31,11 +35,15 @@ public class NotificationService implements ReminderObserver {
 
     @Override
     public void update(Medication medication) {
-        System.out.println("--- UI/PUSH NOTIFICATION HANDLER ---");
-        System.out.printf("ALERT: Time to take %s (%s). Attributes: %s\n",
+        log.info("ALERT: Time to take {} ({}). Attributes: {}",
                 medication.getName(),
                 medication.getDosageForm(),
                 medication.getAttributes());
-        System.out.println("------------------------------------");
     }
-}
\ No newline at end of file
+
+    @Override
+    public void missed(Medication medication) {
+        log.info("MISSED: {} was due at {} and was not taken",
+                medication.getName(), medication.getNextDueTime());
+    }
+}
@@ -0,0 +1,136 @@
+package org.ooad.server.observer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.ooad.server.model.Medication;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers due reminders to observers off the scheduler thread.
+ * Reminders are sharded by user id across single-threaded workers, so one user's
+ * reminders stay in order while a slow observer only delays its own shard.
+ * Each shard has a bounded queue; when it is full the reminder is dropped and counted.
+ */
+@Component
+public class ReminderDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(ReminderDispatcher.class);
+
+    private final ThreadPoolExecutor[] shards;
+    private final Counter dispatched;
+    private final Counter dropped;
+    private final Counter failures;
+    private final Timer latency;
+    private final Meter.MeterProvider<Timer> observerTime;
+
+    @Autowired
+    public ReminderDispatcher(@Value("${medtrack.reminders.dispatch.workers:4}") int workers,
+                              @Value("${medtrack.reminders.dispatch.queue-capacity:1000}") int queueCapacity,
+                              MeterRegistry registry) {
+        this.shards = new ThreadPoolExecutor[Math.max(1, workers)];
+        for (int i = 0; i < shards.length; i++) {
+            String threadName = "reminder-dispatch-" + i;
+            ThreadPoolExecutor shard = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, threadName);
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy());
+            shards[i] = shard;
+            Gauge.builder("medtrack.reminders.queue.depth", shard, s -> s.getQueue().size())
+                    .description("Reminders waiting in a dispatch shard")
+                    .tag("shard", String.valueOf(i))
+                    .register(registry);
+        }
+        this.dispatched = Counter.builder("medtrack.reminders.dispatched").register(registry);
+        this.dropped = Counter.builder("medtrack.reminders.dropped")
+                .description("Reminders rejected because their shard queue was full")
+                .register(registry);
+        this.failures = Counter.builder("medtrack.reminders.observer.failures").register(registry);
+        this.latency = Timer.builder("medtrack.reminders.dispatch.latency")
+                .description("Time from enqueue until every observer has been updated")
+                .register(registry);
+        this.observerTime = Timer.builder("medtrack.reminders.observer.latency")
+                .description("Time one observer spent handling one reminder")
+                .withRegistry(registry);
+    }
+
+    /**
+     * Queues the medication for delivery to the given observers.
+     * @return false if the shard was full and the reminder was dropped.
+     */
+    public boolean dispatch(Medication medication, List<ReminderObserver> observers) {
+        return dispatch(medication, observers, ReminderObserver::update);
+    }
+
+    /**
+     * Same as dispatch, calling the given observer method (e.g. ReminderObserver::missed) instead of update.
+     */
+    public boolean dispatch(Medication medication, List<ReminderObserver> observers,
+                            BiConsumer<ReminderObserver, Medication> delivery) {
+        long enqueuedAt = System.nanoTime();
+        try {
+            shardFor(medication.getUserId()).execute(() -> {
+                for (ReminderObserver observer : observers) {
+                    String name = observer.getClass().getSimpleName();
+                    long started = System.nanoTime();
+                    try {
+                        delivery.accept(observer, medication);
+                    } catch (RuntimeException e) {
+                        // One failing observer must not stop the others
+                        failures.increment();
+                        log.warn("Observer {} failed: {}", name, e.getMessage());
+                    }
+                    observerTime.withTag("observer", name).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+                dispatched.increment();
+                latency.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+            return false;
+        }
+    }
+
+    public int queueDepth() {
+        int depth = 0;
+        for (ThreadPoolExecutor shard : shards) {
+            depth += shard.getQueue().size();
+        }
+        return depth;
+    }
+
+    public long droppedCount() {
+        return (long) dropped.count();
+    }
+
+    private ThreadPoolExecutor shardFor(Long userId) {
+        int hash = userId == null ? 0 : Long.hashCode(userId);
+        return shards[Math.floorMod(hash, shards.length)];
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor shard : shards) {
+            shard.shutdown();
+        }
+    }
+}
@@ -8,8 +8,16 @@ import org.ooad.server.model.Medication;
  */
 public interface ReminderObserver {
     /**
-     * Called by the Subject (ReminderSystem) when a medication is due.
+     * Called by the Subject (ReminderSystem) when a medication is due,
+     * and again on each re-notification while it stays overdue.
      * @param medication The medication that is due.
      */
     void update(Medication medication);
-}
\ No newline at end of file
+
+    /**
+     * Called once when an overdue dose passes the grace window without being taken.
+     * @param medication The medication, still carrying the due time that was missed.
+     */
+    default void missed(Medication medication) {
+    }
+}
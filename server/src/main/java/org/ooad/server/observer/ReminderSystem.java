@@ -1,13 +1,31 @@
 package org.ooad.server.observer;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.ooad.server.model.BaseMedication;
 import org.ooad.server.model.Medication;
+import org.ooad.server.model.ScheduledDose;
 import org.ooad.server.repository.MedicationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Subject/Observable in the Observer Pattern.
@@ -17,45 +35,203 @@ import java.util.List;
 @Service
 public class ReminderSystem {
 
-    private final List<ReminderObserver> observers = new ArrayList<>();
+    private static final Logger log = LoggerFactory.getLogger(ReminderSystem.class);
+
+    // Upper bound on ids per findAllById call so a large backlog of due doses doesn't build one huge IN clause
+    private static final int LOAD_CHUNK_SIZE = 500;
+
+    // Rows per page when reading from the database (index rebuild and fallback sweep)
+    private static final int PAGE_SIZE = 1000;
+
+    // Copy-on-write: observers attach rarely, while dispatch workers iterate constantly
+    private final List<ReminderObserver> observers = new CopyOnWriteArrayList<>();
 
     private final MedicationRepository medicationRepository;
+    private final DueTimeIndex dueTimeIndex;
+    private final ReminderDispatcher dispatcher;
+    private final DoseEscalation escalation;
+    private final Timer tickTime;
+    private final DistributionSummary dueCount;
+    private final Counter skippedTicks;
+
+    // A lock rather than synchronized: a virtual thread blocked in JDBC inside synchronized pins its carrier thread
+    private final ReentrantLock tickLock = new ReentrantLock();
+
+    private volatile boolean indexLoaded = false;
 
     @Autowired
-    public ReminderSystem(MedicationRepository medicationRepository) {
+    public ReminderSystem(MedicationRepository medicationRepository,
+                          DueTimeIndex dueTimeIndex,
+                          ReminderDispatcher dispatcher,
+                          DoseEscalation escalation,
+                          MeterRegistry registry) {
         this.medicationRepository = medicationRepository;
+        this.dueTimeIndex = dueTimeIndex;
+        this.dispatcher = dispatcher;
+        this.escalation = escalation;
+        this.tickTime = Timer.builder("medtrack.reminders.tick")
+                .description("Duration of one reminder tick")
+                .register(registry);
+        this.dueCount = DistributionSummary.builder("medtrack.reminders.tick.due")
+                .description("Doses found due in one reminder tick")
+                .register(registry);
+        this.skippedTicks = Counter.builder("medtrack.reminders.tick.skipped")
+                .description("Scheduled ticks skipped because another tick was still running")
+                .register(registry);
     }
 
     public void attach(ReminderObserver observer) {
         observers.add(observer);
-        System.out.println("Observer attached: " + observer.getClass().getSimpleName());
+        log.info("Observer attached: {}", observer.getClass().getSimpleName());
     }
 
     public void detach(ReminderObserver observer) {
         observers.remove(observer);
-        System.out.println("Observer detached: " + observer.getClass().getSimpleName());
+        log.info("Observer detached: {}", observer.getClass().getSimpleName());
     }
 
+    /**
+     * Hands the medication to the dispatcher, which updates the observers on a worker thread.
+     */
     public void notifyObservers(Medication medication) {
-        System.out.println("--- NOTIFYING OBSERVERS for: " + medication.getName() + " ---");
-        for (ReminderObserver observer : observers) {
-            observer.update(medication);
+        log.debug("Notifying observers for: {}", medication.getName());
+        if (!dispatcher.dispatch(medication, observers)) {
+            log.warn("Reminder dropped, dispatch queue full: {}", medication.getName());
+        }
+    }
+
+    /**
+     * Tells the observers that an overdue dose passed its grace window.
+     * @return false if the dispatch queue was full and the notice was not handed over.
+     */
+    public boolean notifyMissed(Medication medication) {
+        log.debug("Missed dose: {}", medication.getName());
+        if (!dispatcher.dispatch(medication, observers, ReminderObserver::missed)) {
+            log.warn("Missed-dose notice deferred to the next tick, dispatch queue full: {}", medication.getName());
+            return false;
         }
+        return true;
     }
 
     /**
-     * Scheduled method to check for due medications every 10 seconds (for demo).
+     * Database-backed recovery: after a restart the in-memory index is empty,
+     * so it is rebuilt once from the medication table before the first tick uses it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIndex() {
+        long started = System.nanoTime();
+        Pageable page = Pageable.ofSize(PAGE_SIZE);
+        long lastId = 0L;
+        List<ScheduledDose> batch;
+        do {
+            batch = medicationRepository.findScheduledDosesAfter(lastId, page);
+            batch.forEach(dueTimeIndex::load);
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).medicationId();
+            }
+        } while (batch.size() == PAGE_SIZE);
+        indexLoaded = true;
+        log.info("Reminder index loaded with {} medications in {} ms",
+                dueTimeIndex.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Scheduled entry point, every tick-interval-ms (10 seconds by default, for demo).
      * The @Scheduled annotation requires @EnableScheduling on the main application class.
+     * With virtual threads the scheduler does not wait for a slow tick before starting the next one,
+     * so a scheduled tick that finds another one still running is skipped rather than queued behind it.
+     */
+    @Scheduled(fixedRateString = "${medtrack.reminders.tick-interval-ms:10000}",
+            initialDelayString = "${medtrack.reminders.tick-initial-delay-ms:10000}")
+    public void scheduledCheck() {
+        if (!tickLock.tryLock()) {
+            skippedTicks.increment();
+            return;
+        }
+        try {
+            tick();
+        } finally {
+            tickLock.unlock();
+        }
+    }
+
+    /**
+     * Checks for due medications now, waiting for a tick already in progress to finish first.
+     * Only the doses the index reports as due are loaded from the database,
+     * and DoseEscalation decides which of them are actually owed a notification this tick.
      */
-    @Scheduled(fixedRate = 10000)
     public void checkForDueReminders() {
+        tickLock.lock();
+        try {
+            tick();
+        } finally {
+            tickLock.unlock();
+        }
+    }
+
+    private void tick() {
+        Timer.Sample sample = Timer.start();
         LocalDateTime now = LocalDateTime.now();
+        escalation.beginTick();
+        int due = indexLoaded ? checkIndex(now) : sweepDatabase(now);
+        escalation.endTick();
+        dueCount.record(due);
+        sample.stop(tickTime);
+    }
+
+    // Returns how many doses the index reported due
+    private int checkIndex(LocalDateTime now) {
+        List<ScheduledDose> due = dueTimeIndex.dueBefore(now);
 
-        medicationRepository.findAll().stream()
-                .filter(med -> med.getNextDueTime() != null && med.getNextDueTime().isBefore(now))
-                .forEach(med -> {
-                    notifyObservers(med);
-                });
+        for (int from = 0; from < due.size(); from += LOAD_CHUNK_SIZE) {
+            List<ScheduledDose> chunk = due.subList(from, Math.min(from + LOAD_CHUNK_SIZE, due.size()));
+            Map<Long, BaseMedication> loaded = medicationRepository
+                    .findAllById(chunk.stream().map(ScheduledDose::medicationId).toList())
+                    .stream()
+                    .collect(Collectors.toMap(BaseMedication::getId, Function.identity()));
+
+            for (ScheduledDose dose : chunk) {
+                BaseMedication med = loaded.get(dose.medicationId());
+                if (med == null) {
+                    // Row is gone (deleted elsewhere or never committed)
+                    dueTimeIndex.remove(dose.medicationId());
+                } else if (med.getNextDueTime() != null && med.getNextDueTime().isBefore(now)) {
+                    remind(med, now);
+                } else {
+                    // Index was stale; move the entry to the due time the database holds
+                    dueTimeIndex.schedule(med);
+                }
+            }
+        }
+        return due.size();
+    }
+
+    /**
+     * Fallback used until the index has been rebuilt: pages through due rows with a range query.
+     */
+    private int sweepDatabase(LocalDateTime now) {
+        Pageable page = PageRequest.of(0, PAGE_SIZE, Sort.by("nextDueTime", "id"));
+        Slice<BaseMedication> slice;
+        int due = 0;
+        do {
+            slice = medicationRepository.findByNextDueTimeBefore(now, page);
+            slice.forEach(med -> remind(med, now));
+            due += slice.getNumberOfElements();
+            page = slice.nextPageable();
+        } while (slice.hasNext());
+        return due;
     }
 
-}
\ No newline at end of file
+    private void remind(BaseMedication med, LocalDateTime now) {
+        switch (escalation.next(med.getId(), med.getNextDueTime(), now)) {
+            case ALERT -> notifyObservers(med);
+            case MISSED -> {
+                if (!notifyMissed(med)) {
+                    // Nothing else would ever mark this dose missed or move its schedule on
+                    escalation.missedNotDelivered(med.getId());
+                }
+            }
+            case NONE -> { }
+        }
+    }
+}
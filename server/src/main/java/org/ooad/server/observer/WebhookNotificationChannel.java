@@ -0,0 +1,102 @@
+package org.ooad.server.observer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.ooad.server.model.User;
+import org.ooad.server.repository.DeadLetterNotificationRepository;
+import org.ooad.server.repository.UserRepository;
+import org.ooad.server.service.WebhookUrlPolicy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * POSTs each user's batch of reminders as JSON to their webhook URL.
+ * Uses the JDK's async HttpClient, which keeps connections to each host pooled.
+ * The URL is re-checked against the WebhookUrlPolicy before every send; a refused URL fails like any other delivery.
+ * The check resolves the host name, which blocks, so it runs on a small dedicated pool rather than the
+ * notification timer thread. HttpClient resolves the name again when it connects and cannot be pinned to the
+ * checked address without losing the host name for TLS (SNI and certificate checks), so a host whose DNS answer
+ * changes between the two lookups (DNS rebinding) is not caught here.
+ */
+@Component
+@ConditionalOnProperty(name = "medtrack.notifications.webhook.enabled", havingValue = "true")
+public class WebhookNotificationChannel extends NotificationChannel {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private final WebhookUrlPolicy urlPolicy;
+    private final ExecutorService resolvers;
+
+    @Autowired
+    public WebhookNotificationChannel(ReminderSystem reminderSystem,
+                                      UserRepository userRepository,
+                                      DeadLetterNotificationRepository deadLetters,
+                                      ObjectMapper objectMapper,
+                                      WebhookUrlPolicy urlPolicy,
+                                      @Value("${medtrack.notifications.webhook.timeout:5s}") Duration timeout,
+                                      @Value("${medtrack.notifications.webhook.resolvers:2}") int resolverThreads,
+                                      @Value("${medtrack.notifications.batch-window:2s}") Duration batchWindow,
+                                      @Value("${medtrack.notifications.max-attempts:4}") int maxAttempts,
+                                      @Value("${medtrack.notifications.retry-delay:1s}") Duration retryDelay,
+                                      MeterRegistry registry) {
+        super("webhook", reminderSystem, userRepository, deadLetters, batchWindow, maxAttempts, retryDelay, registry);
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+        this.urlPolicy = urlPolicy;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+        this.resolvers = Executors.newFixedThreadPool(Math.max(1, resolverThreads), runnable -> {
+            Thread thread = new Thread(runnable, "webhook-resolver");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    protected String recipientOf(User user) {
+        return user.getWebhookUrl();
+    }
+
+    @Override
+    protected CompletableFuture<Void> deliver(User user, String recipient, List<Notice> notices) {
+        String body;
+        try {
+            body = objectMapper.writeValueAsString(Map.of("username", user.getUsername(), "reminders", notices));
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return CompletableFuture.supplyAsync(() -> urlPolicy.check(recipient), resolvers)
+                .thenCompose(target -> {
+                    HttpRequest request = HttpRequest.newBuilder(target)
+                            .timeout(timeout)
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(body))
+                            .build();
+                    return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+                })
+                .thenAccept(response -> {
+                    if (response.statusCode() / 100 != 2) {
+                        throw new IllegalStateException("Webhook answered HTTP " + response.statusCode());
+                    }
+                });
+    }
+
+    @Override
+    public void shutdown() {
+        super.shutdown();
+        resolvers.shutdown();
+    }
+}
@@ -0,0 +1,51 @@
+package org.ooad.server.repository;
+
+import org.ooad.server.model.AdherenceDaily;
+import org.ooad.server.model.AdherenceSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AdherenceDailyRepository extends JpaRepository<AdherenceDaily, Long> {
+
+    // Adds to an existing day's counters; returns 0 if that day has no row yet
+    @Modifying
+    @Query("update AdherenceDaily a set a.taken = a.taken + :taken, a.onTime = a.onTime + :onTime, " +
+           "a.snoozed = a.snoozed + :snoozed, a.skipped = a.skipped + :skipped, a.missed = a.missed + :missed, " +
+           "a.totalDelaySeconds = a.totalDelaySeconds + :delay " +
+           "where a.medicationId = :medicationId and a.doseDate = :doseDate")
+    int increment(@Param("medicationId") Long medicationId, @Param("doseDate") LocalDate doseDate,
+                  @Param("taken") long taken, @Param("onTime") long onTime, @Param("snoozed") long snoozed,
+                  @Param("skipped") long skipped, @Param("missed") long missed, @Param("delay") long delay);
+
+    // One row per medication; medications deleted since keep their counts under a null name
+    @Query("select new org.ooad.server.model.AdherenceSummary(a.medicationId, m.name, " +
+           "sum(a.taken), sum(a.onTime), sum(a.snoozed), sum(a.skipped), sum(a.missed), sum(a.totalDelaySeconds)) " +
+           "from AdherenceDaily a left join BaseMedication m on m.id = a.medicationId " +
+           "where a.userId = :userId and a.doseDate between :from and :to " +
+           "group by a.medicationId, m.name order by a.medicationId")
+    List<AdherenceSummary> summarizeForUser(@Param("userId") Long userId,
+                                            @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select new org.ooad.server.model.AdherenceSummary(m.name, count(distinct a.userId), " +
+           "sum(a.taken), sum(a.onTime), sum(a.snoozed), sum(a.skipped), sum(a.missed), sum(a.totalDelaySeconds)) " +
+           "from AdherenceDaily a join BaseMedication m on m.id = a.medicationId " +
+           "where a.doseDate between :from and :to " +
+           "group by m.name order by m.name")
+    List<AdherenceSummary> summarizeForAll(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("select new org.ooad.server.model.AdherenceSummary(m.name, count(distinct a.userId), " +
+           "sum(a.taken), sum(a.onTime), sum(a.snoozed), sum(a.skipped), sum(a.missed), sum(a.totalDelaySeconds)) " +
+           "from AdherenceDaily a join BaseMedication m on m.id = a.medicationId " +
+           "where a.userId in :userIds and a.doseDate between :from and :to " +
+           "group by m.name order by m.name")
+    List<AdherenceSummary> summarizeForUsers(@Param("userIds") Collection<Long> userIds,
+                                             @Param("from") LocalDate from, @Param("to") LocalDate to);
+}
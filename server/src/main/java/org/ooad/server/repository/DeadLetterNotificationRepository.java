@@ -0,0 +1,13 @@
+package org.ooad.server.repository;
+
+import org.ooad.server.model.DeadLetterNotification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DeadLetterNotificationRepository extends JpaRepository<DeadLetterNotification, Long> {
+
+    List<DeadLetterNotification> findByChannel(String channel);
+}
@@ -0,0 +1,28 @@
+package org.ooad.server.repository;
+
+import org.ooad.server.model.DoseEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+@Repository
+public interface DoseEventRepository extends JpaRepository<DoseEvent, Long> {
+
+    // A user's history for a range of days, one page at a time
+    Slice<DoseEvent> findByUserIdAndEventDateBetween(Long userId, LocalDate from, LocalDate to, Pageable pageable);
+
+    Slice<DoseEvent> findByMedicationIdAndEventDateBetween(Long medicationId, LocalDate from, LocalDate to, Pageable pageable);
+
+    // Retention: drops whole days older than the cutoff in one statement
+    @Modifying
+    @Transactional
+    @Query("delete from DoseEvent e where e.eventDate < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDate cutoff);
+}
@@ -0,0 +1,24 @@
+package org.ooad.server.repository;
+
+import org.ooad.server.model.MedicationSummary;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Filtered keyset listing of a user's medications, ordered by (nextDueTime, id) with medications
+ * that have no due time last, ordered by id. Only the predicates that are actually set end up in the query.
+ */
+public interface MedicationListingQueries {
+
+    /**
+     * @param dueAfter   inclusive lower bound on nextDueTime, or null; excludes medications without a due time
+     * @param dueBefore  exclusive upper bound on nextDueTime, or null; excludes medications without a due time
+     * @param attributeMask MedicationAttribute bits that must all be set; 0 for no filter
+     * @param afterDue   keyset cursor: due time of the last row already returned; null for the first page,
+     *                   or if that row had no due time
+     * @param afterId    keyset cursor: id of that row, or null for the first page
+     */
+    List<MedicationSummary> findSummaries(Long userId, LocalDateTime dueAfter, LocalDateTime dueBefore,
+                                          int attributeMask, LocalDateTime afterDue, Long afterId, int limit);
+}
@@ -0,0 +1,92 @@
+package org.ooad.server.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.ooad.server.model.MedicationSummary;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class MedicationListingQueriesImpl implements MedicationListingQueries {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<MedicationSummary> findSummaries(Long userId, LocalDateTime dueAfter, LocalDateTime dueBefore,
+                                                 int attributeMask, LocalDateTime afterDue, Long afterId, int limit) {
+        boolean cursorInUndated = afterDue == null && afterId != null;
+        List<MedicationSummary> rows = new ArrayList<>(limit);
+        if (!cursorInUndated) {
+            rows.addAll(findDated(userId, dueAfter, dueBefore, attributeMask, afterDue, afterId, limit));
+        }
+        // Medications without a due time sort last; a due-time filter excludes them
+        if (rows.size() < limit && dueAfter == null && dueBefore == null) {
+            rows.addAll(findUndated(userId, attributeMask, cursorInUndated ? afterId : null, limit - rows.size()));
+        }
+        return rows;
+    }
+
+    private List<MedicationSummary> findDated(Long userId, LocalDateTime dueAfter, LocalDateTime dueBefore,
+                                              int attributeMask, LocalDateTime afterDue, Long afterId, int limit) {
+        StringBuilder jpql = select("m.nextDueTime is not null");
+        Map<String, Object> params = new HashMap<>();
+        params.put("userId", userId);
+
+        if (dueAfter != null) {
+            jpql.append(" and m.nextDueTime >= :dueAfter");
+            params.put("dueAfter", dueAfter);
+        }
+        if (dueBefore != null) {
+            jpql.append(" and m.nextDueTime < :dueBefore");
+            params.put("dueBefore", dueBefore);
+        }
+        filterAttributes(jpql, params, attributeMask);
+        if (afterDue != null) {
+            // Row-value comparison written out, so it stays a range scan on (userId, nextDueTime)
+            jpql.append(" and (m.nextDueTime > :afterDue or (m.nextDueTime = :afterDue and m.id > :afterId))");
+            params.put("afterDue", afterDue);
+            params.put("afterId", afterId);
+        }
+        jpql.append(" order by m.nextDueTime, m.id");
+        return run(jpql, params, limit);
+    }
+
+    // The undated segment is ordered by id alone, so its cursor is just the last id
+    private List<MedicationSummary> findUndated(Long userId, int attributeMask, Long afterId, int limit) {
+        StringBuilder jpql = select("m.nextDueTime is null");
+        Map<String, Object> params = new HashMap<>();
+        params.put("userId", userId);
+        filterAttributes(jpql, params, attributeMask);
+        if (afterId != null) {
+            jpql.append(" and m.id > :afterId");
+            params.put("afterId", afterId);
+        }
+        jpql.append(" order by m.id");
+        return run(jpql, params, limit);
+    }
+
+    private static StringBuilder select(String dueCondition) {
+        return new StringBuilder(
+                "select new org.ooad.server.model.MedicationSummary(m.id, m.name, m.dosageForm, m.nextDueTime, " +
+                "m.dosagesPerDay, m.attributeFlags) from BaseMedication m " +
+                "where m.userId = :userId and " + dueCondition);
+    }
+
+    private static void filterAttributes(StringBuilder jpql, Map<String, Object> params, int attributeMask) {
+        if (attributeMask != 0) {
+            jpql.append(" and bitand(m.attributeFlags, cast(:mask as Integer)) = :mask");
+            params.put("mask", attributeMask);
+        }
+    }
+
+    private List<MedicationSummary> run(StringBuilder jpql, Map<String, Object> params, int limit) {
+        TypedQuery<MedicationSummary> query = entityManager.createQuery(jpql.toString(), MedicationSummary.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+}
@@ -1,12 +1,66 @@
 package org.ooad.server.repository;
 
 import org.ooad.server.model.BaseMedication;
+import org.ooad.server.model.MedicationLabel;
+import org.ooad.server.model.ScheduledDose;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface MedicationRepository extends JpaRepository<BaseMedication, Long> {
+public interface MedicationRepository extends JpaRepository<BaseMedication, Long>, MedicationListingQueries {
     // Finds medications belonging to a specific user ID
     List<BaseMedication> findByUserId(Long userId);
-}
\ No newline at end of file
+
+    // Due medications, one page at a time; served by the next_due_time index
+    Slice<BaseMedication> findByNextDueTimeBefore(LocalDateTime time, Pageable pageable);
+
+    // Reads only the columns the reminder index needs, used to rebuild it after a restart.
+    // Keyset paging on id keeps each page a short index range scan however large the table is.
+    @Query("select new org.ooad.server.model.ScheduledDose(m.id, m.userId, m.nextDueTime, m.dosagesPerDay, " +
+            "coalesce(m.scheduledFor, m.nextDueTime)) " +
+            "from BaseMedication m where m.nextDueTime is not null and m.id > :afterId order by m.id")
+    List<ScheduledDose> findScheduledDosesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // One medication's schedule, re-read when a guarded due time update below finds the row has moved on
+    @Query("select new org.ooad.server.model.ScheduledDose(m.id, m.userId, m.nextDueTime, m.dosagesPerDay, " +
+            "coalesce(m.scheduledFor, m.nextDueTime)) " +
+            "from BaseMedication m where m.id = :id and m.nextDueTime is not null")
+    Optional<ScheduledDose> findScheduledDose(@Param("id") Long id);
+
+    // Names and owners for a set of medications (clinician dashboard); due times come from the in-memory index
+    @Query("select new org.ooad.server.model.MedicationLabel(m.id, m.name, m.dosageForm, u.username) " +
+            "from BaseMedication m join app_user u on u.id = m.userId where m.id in :ids")
+    List<MedicationLabel> findLabels(@Param("ids") Collection<Long> ids);
+
+    // Single-statement snooze: moves the due time but keeps the dose scheduled for its original time.
+    // Applied only if the row is still due at :expected, so a stale index entry or a concurrent take
+    // cannot be overwritten. Bumps the version so concurrent load-modify-save paths notice.
+    // Returns the number of rows updated (0 or 1).
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("update BaseMedication m set m.nextDueTime = :due, " +
+            "m.scheduledFor = coalesce(m.scheduledFor, m.nextDueTime), m.version = m.version + 1 " +
+            "where m.id = :id and m.nextDueTime = :expected")
+    int updateNextDueTime(@Param("id") Long id, @Param("expected") LocalDateTime expected,
+                          @Param("due") LocalDateTime due);
+
+    // As above for take and skip, which move on to the next dose (due and scheduled at :due),
+    // and only if dosagesPerDay still has the value the new due time was computed from
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("update BaseMedication m set m.nextDueTime = :due, m.scheduledFor = :due, m.version = m.version + 1 " +
+            "where m.id = :id and m.nextDueTime = :expected and m.dosagesPerDay = :dosagesPerDay")
+    int updateNextDueTime(@Param("id") Long id, @Param("dosagesPerDay") int dosagesPerDay,
+                          @Param("expected") LocalDateTime expected, @Param("due") LocalDateTime due);
+}
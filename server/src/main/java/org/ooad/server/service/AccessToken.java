@@ -0,0 +1,7 @@
+package org.ooad.server.service;
+
+/**
+ * Login response: a signed bearer token and its lifetime in seconds.
+ */
+public record AccessToken(String accessToken, String tokenType, long expiresIn) {
+}
@@ -0,0 +1,83 @@
+package org.ooad.server.service;
+
+import org.ooad.server.model.AdherenceDaily;
+import org.ooad.server.model.DoseEvent;
+import org.ooad.server.repository.AdherenceDailyRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Folds a batch of dose events into the daily adherence counters.
+ * The batch is first collapsed to one delta per (medication, day), so a batch costs one
+ * UPDATE per touched day plus one INSERT per day seen for the first time.
+ * Only called by DoseEventLog while it holds its write lock, which keeps update-or-insert race free.
+ */
+@Component
+public class AdherenceRollup {
+
+    private final AdherenceDailyRepository adherenceDailyRepository;
+    private final long onTimeWindowSeconds;
+
+    @Autowired
+    public AdherenceRollup(AdherenceDailyRepository adherenceDailyRepository,
+                           @Value("${medtrack.adherence.on-time-window:30m}") Duration onTimeWindow) {
+        this.adherenceDailyRepository = adherenceDailyRepository;
+        this.onTimeWindowSeconds = onTimeWindow.toSeconds();
+    }
+
+    private record Key(Long medicationId, LocalDate doseDate) {}
+
+    private static final class Delta {
+        final Long userId;
+        long taken, onTime, snoozed, skipped, missed, delaySeconds;
+
+        Delta(Long userId) {
+            this.userId = userId;
+        }
+    }
+
+    public void apply(List<DoseEvent> events) {
+        Map<Key, Delta> deltas = new HashMap<>();
+        for (DoseEvent event : events) {
+            LocalDateTime scheduledFor = event.getScheduledFor() != null ? event.getScheduledFor() : event.getOccurredAt();
+            Delta delta = deltas.computeIfAbsent(new Key(event.getMedicationId(), scheduledFor.toLocalDate()),
+                    k -> new Delta(event.getUserId()));
+            switch (event.getType()) {
+                case TAKEN -> {
+                    // Early doses add no delay, but only count as on time within the same window
+                    long delay = Duration.between(scheduledFor, event.getOccurredAt()).toSeconds();
+                    delta.taken++;
+                    delta.delaySeconds += Math.max(0, delay);
+                    if (Math.abs(delay) <= onTimeWindowSeconds) {
+                        delta.onTime++;
+                    }
+                }
+                case SNOOZED -> delta.snoozed++;
+                case SKIPPED -> delta.skipped++;
+                case MISSED -> delta.missed++;
+            }
+        }
+
+        List<AdherenceDaily> newDays = new ArrayList<>();
+        for (Map.Entry<Key, Delta> entry : deltas.entrySet()) {
+            Key key = entry.getKey();
+            Delta d = entry.getValue();
+            int updated = adherenceDailyRepository.increment(key.medicationId(), key.doseDate(),
+                    d.taken, d.onTime, d.snoozed, d.skipped, d.missed, d.delaySeconds);
+            if (updated == 0) {
+                newDays.add(new AdherenceDaily(key.medicationId(), d.userId, key.doseDate(),
+                        d.taken, d.onTime, d.snoozed, d.skipped, d.missed, d.delaySeconds));
+            }
+        }
+        adherenceDailyRepository.saveAll(newDays);
+    }
+}
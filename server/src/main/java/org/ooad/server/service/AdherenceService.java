@@ -0,0 +1,55 @@
+package org.ooad.server.service;
+
+import org.ooad.server.model.AdherenceSummary;
+import org.ooad.server.model.User;
+import org.ooad.server.repository.AdherenceDailyRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Adherence reports, answered from the daily rollups.
+ * Cost depends on the number of medications and days in range, never on how many doses were logged.
+ */
+@Service
+public class AdherenceService {
+
+    private final AdherenceDailyRepository adherenceDailyRepository;
+    private final UserLookupCache userLookupCache;
+
+    @Autowired
+    public AdherenceService(AdherenceDailyRepository adherenceDailyRepository, UserLookupCache userLookupCache) {
+        this.adherenceDailyRepository = adherenceDailyRepository;
+        this.userLookupCache = userLookupCache;
+    }
+
+    public List<AdherenceSummary> forUser(String username, LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        User user = userLookupCache.require(username);
+        return adherenceDailyRepository.summarizeForUser(user.getId(), from, to);
+    }
+
+    /**
+     * Per medication name across the given users, or across everyone when no usernames are given.
+     */
+    public List<AdherenceSummary> forCohort(List<String> usernames, LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        if (usernames == null || usernames.isEmpty()) {
+            return adherenceDailyRepository.summarizeForAll(from, to);
+        }
+        List<Long> userIds = new ArrayList<>(usernames.size());
+        for (String username : usernames) {
+            userIds.add(userLookupCache.require(username).getId());
+        }
+        return adherenceDailyRepository.summarizeForUsers(userIds, from, to);
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+    }
+}
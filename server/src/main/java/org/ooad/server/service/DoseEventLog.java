@@ -0,0 +1,191 @@
+package org.ooad.server.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.ooad.server.model.DoseEvent;
+import org.ooad.server.repository.DoseEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only dose history writer.
+ * Request threads only enqueue into a bounded buffer; a single background writer drains it
+ * and inserts batches with saveAll (JDBC-batched through the sequence-generated ids).
+ * If the buffer is full the caller writes the backlog itself, so events are delayed rather than dropped.
+ * Each batch updates the daily adherence rollups in the same transaction.
+ * A batch that fails to store is retried with exponential backoff up to max-attempts; if it still fails,
+ * its events are written one at a time so that one bad event cannot take the rest with it. Every attempt
+ * persists fresh copies of the queued events, so a retry never carries ids from a rolled-back insert
+ * (saveAll would otherwise merge them: a SELECT per event before inserting a copy). An event that
+ * cannot be stored even alone is logged in full at ERROR and counted in medtrack.dose-events.write-failures,
+ * the only case in which history is lost.
+ */
+@Component
+public class DoseEventLog {
+
+    private static final Logger log = LoggerFactory.getLogger(DoseEventLog.class);
+
+    private final DoseEventRepository doseEventRepository;
+    private final AdherenceRollup adherenceRollup;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<DoseEvent> buffer;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final int maxAttempts;
+    private final long retryDelayMs;
+
+    // Held while a batch is being drained and written, so flush() returns only after earlier events are stored
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final Counter written;
+    private final Counter retries;
+    private final Counter failures;
+
+    @Autowired
+    public DoseEventLog(DoseEventRepository doseEventRepository,
+                        AdherenceRollup adherenceRollup,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${medtrack.dose-events.buffer-size:65536}") int bufferSize,
+                        @Value("${medtrack.dose-events.batch-size:500}") int batchSize,
+                        @Value("${medtrack.dose-events.flush-interval-ms:1000}") long flushIntervalMs,
+                        @Value("${medtrack.dose-events.max-attempts:5}") int maxAttempts,
+                        @Value("${medtrack.dose-events.retry-delay-ms:100}") long retryDelayMs,
+                        MeterRegistry registry) {
+        this.doseEventRepository = doseEventRepository;
+        this.adherenceRollup = adherenceRollup;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryDelayMs = retryDelayMs;
+        this.written = Counter.builder("medtrack.dose-events.written").register(registry);
+        this.retries = Counter.builder("medtrack.dose-events.write-retries").register(registry);
+        this.failures = Counter.builder("medtrack.dose-events.write-failures").register(registry);
+        Gauge.builder("medtrack.dose-events.pending", buffer, BlockingQueue::size).register(registry);
+
+        this.writer = new Thread(this::runWriter, "dose-event-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public void record(Long medicationId, Long userId, DoseEvent.Type type, LocalDateTime scheduledFor) {
+        DoseEvent event = new DoseEvent(medicationId, userId, type, scheduledFor, LocalDateTime.now());
+        while (!buffer.offer(event)) {
+            // Backpressure: help drain rather than lose history
+            flush();
+        }
+    }
+
+    /**
+     * Writes everything queued so far; returns once it is stored.
+     */
+    public void flush() {
+        writeLock.lock();
+        try {
+            List<DoseEvent> batch = new ArrayList<>(batchSize);
+            while (buffer.drainTo(batch, batchSize) > 0) {
+                write(batch);
+                batch.clear();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public int pending() {
+        return buffer.size();
+    }
+
+    private void runWriter() {
+        List<DoseEvent> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                DoseEvent first = buffer.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                writeLock.lock();
+                try {
+                    batch.add(first);
+                    buffer.drainTo(batch, batchSize - 1);
+                    write(batch);
+                } finally {
+                    batch.clear();
+                    writeLock.unlock();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void write(List<DoseEvent> batch) {
+        long delay = retryDelayMs;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                store(batch);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts || Thread.currentThread().isInterrupted()) {
+                    log.warn("Failed to write {} dose events after {} attempts, writing them one at a time: {}",
+                            batch.size(), attempt, e.getMessage());
+                    break;
+                }
+                retries.increment();
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                // Shutting down: skip the remaining backoff but still try each event once
+                Thread.currentThread().interrupt();
+            }
+            delay *= 2;
+        }
+        for (DoseEvent event : batch) {
+            try {
+                store(List.of(event));
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.error("Dose event lost: medication {} user {} {} scheduled for {} at {}: {}",
+                        event.getMedicationId(), event.getUserId(), event.getType(), event.getScheduledFor(),
+                        event.getOccurredAt(), e.getMessage());
+            }
+        }
+    }
+
+    private void store(List<DoseEvent> events) {
+        List<DoseEvent> rows = events.stream().map(DoseEvent::copy).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            doseEventRepository.saveAll(rows);
+            adherenceRollup.apply(rows);
+        });
+        written.increment(events.size());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+        flush();
+    }
+}
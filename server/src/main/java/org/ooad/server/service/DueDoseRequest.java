@@ -0,0 +1,18 @@
+package org.ooad.server.service;
+
+import java.util.List;
+
+/**
+ * Body of the clinician dashboard request: the ward's patients and the window to look at.
+ * withinMinutes defaults to 60; overdueMinutes (how far back overdue doses are included) defaults to 0.
+ */
+public record DueDoseRequest(List<Long> userIds, Integer withinMinutes, Integer overdueMinutes) {
+
+    public int withinMinutesOrDefault() {
+        return withinMinutes == null ? 60 : withinMinutes;
+    }
+
+    public int overdueMinutesOrDefault() {
+        return overdueMinutes == null ? 0 : overdueMinutes;
+    }
+}
@@ -0,0 +1,108 @@
+package org.ooad.server.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets for password attempts, one per username and one per client address.
+ * Each bucket is a single AtomicLong updated by CAS, so checks never lock; buckets live in a
+ * Caffeine map (striped internally) and are dropped once idle long enough to be full again.
+ * A rejected check reports how long until the next attempt would be allowed.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final Limit perUser;
+    private final Limit perAddress;
+    private final Cache<String, TokenBucket> buckets;
+
+    private final Counter userLimited;
+    private final Counter addressLimited;
+
+    @Autowired
+    public LoginRateLimiter(@Value("${medtrack.auth.login.user-burst:5}") int userBurst,
+                            @Value("${medtrack.auth.login.user-refill:12s}") Duration userRefill,
+                            @Value("${medtrack.auth.login.ip-burst:30}") int addressBurst,
+                            @Value("${medtrack.auth.login.ip-refill:2s}") Duration addressRefill,
+                            @Value("${medtrack.auth.login.max-tracked:100000}") long maxTracked,
+                            MeterRegistry registry) {
+        this.perUser = new Limit(userBurst, userRefill);
+        this.perAddress = new Limit(addressBurst, addressRefill);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxTracked)
+                .expireAfterAccess(Duration.ofNanos(Math.max(perUser.fullAfterNanos(), perAddress.fullAfterNanos())))
+                .build();
+        this.userLimited = Counter.builder("medtrack.auth.rate-limited").tag("scope", "user").register(registry);
+        this.addressLimited = Counter.builder("medtrack.auth.rate-limited").tag("scope", "ip").register(registry);
+    }
+
+    /**
+     * Takes one attempt from the address's bucket and, if a username is given, from the user's.
+     * Returns Duration.ZERO when allowed, otherwise the time to wait.
+     */
+    public Duration tryAcquire(String username, String address) {
+        long now = System.nanoTime();
+        long wait = bucket("ip:" + address, now).tryAcquire(now, perAddress);
+        if (wait > 0) {
+            addressLimited.increment();
+            return Duration.ofNanos(wait);
+        }
+        if (username != null) {
+            wait = bucket("user:" + username, now).tryAcquire(now, perUser);
+            if (wait > 0) {
+                userLimited.increment();
+                return Duration.ofNanos(wait);
+            }
+        }
+        return Duration.ZERO;
+    }
+
+    private TokenBucket bucket(String key, long now) {
+        return buckets.get(key, k -> new TokenBucket(now));
+    }
+
+    private record Limit(long refillNanos, long burstNanos) {
+        Limit(int burst, Duration refill) {
+            this(Math.max(1, refill.toNanos()), Math.max(0, burst - 1) * Math.max(1, refill.toNanos()));
+        }
+
+        long fullAfterNanos() {
+            return burstNanos + refillNanos;
+        }
+    }
+
+    /**
+     * Token bucket kept as the time at which it will be full again (the GCRA form):
+     * an attempt fits if that time is at most burst-1 refill periods ahead of now.
+     */
+    static final class TokenBucket {
+
+        private final AtomicLong fullAt;
+
+        TokenBucket(long now) {
+            this.fullAt = new AtomicLong(now);
+        }
+
+        long tryAcquire(long now, Limit limit) {
+            while (true) {
+                long current = fullAt.get();
+                long base = current - now > 0 ? current : now;
+                long ahead = base - now;
+                if (ahead > limit.burstNanos()) {
+                    return ahead - limit.burstNanos();
+                }
+                if (fullAt.compareAndSet(current, base + limit.refillNanos())) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.ooad.server.service;
+
+import org.ooad.server.model.MedicationSummary;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor: the (nextDueTime, id) of the last row on a page, URL-safe Base64 encoded.
+ * due is null once the listing has reached the medications without a due time.
+ */
+record MedicationCursor(LocalDateTime due, Long id) {
+
+    static MedicationCursor after(MedicationSummary last) {
+        return new MedicationCursor(last.nextDueTime(), last.id());
+    }
+
+    String encode() {
+        String raw = (due == null ? "" : due.toString()) + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static MedicationCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            String due = raw.substring(0, separator);
+            return new MedicationCursor(due.isEmpty() ? null : LocalDateTime.parse(due),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.ooad.server.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of a bulk medication import (JSON array element or CSV line).
+ * Optional fields: foodSensitive (default false), dosagesPerDay (default 1), startTime.
+ */
+public record MedicationImport(String username,
+                               String name,
+                               String dosageForm,
+                               Boolean foodSensitive,
+                               Integer dosagesPerDay,
+                               LocalDateTime startTime) {
+
+    public boolean isFoodSensitive() {
+        return Boolean.TRUE.equals(foodSensitive);
+    }
+
+    public int dosagesPerDayOrDefault() {
+        return dosagesPerDay == null ? 1 : dosagesPerDay;
+    }
+}
@@ -0,0 +1,52 @@
+package org.ooad.server.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. Counts cover every row; only the first
+ * MAX_MESSAGES warnings and errors are kept so huge feeds stay cheap to report.
+ */
+public class MedicationImportResult {
+
+    static final int MAX_MESSAGES = 100;
+
+    private int imported;
+    private int rejected;
+    private int interactionWarnings;
+    private final List<String> warnings = new ArrayList<>();
+    private final List<String> errors = new ArrayList<>();
+
+    void imported(int count) {
+        imported += count;
+    }
+
+    public void reject(String error) {
+        rejected++;
+        if (errors.size() < MAX_MESSAGES) {
+            errors.add(error);
+        }
+    }
+
+    void warn(String warning) {
+        interactionWarnings++;
+        if (warnings.size() < MAX_MESSAGES) {
+            warnings.add(warning);
+        }
+    }
+
+    public MedicationImportResult merge(MedicationImportResult other) {
+        imported += other.imported;
+        rejected += other.rejected;
+        interactionWarnings += other.interactionWarnings;
+        other.warnings.stream().limit(MAX_MESSAGES - warnings.size()).forEach(warnings::add);
+        other.errors.stream().limit(MAX_MESSAGES - errors.size()).forEach(errors::add);
+        return this;
+    }
+
+    public int getImported() { return imported; }
+    public int getRejected() { return rejected; }
+    public int getInteractionWarnings() { return interactionWarnings; }
+    public List<String> getWarnings() { return warnings; }
+    public List<String> getErrors() { return errors; }
+}
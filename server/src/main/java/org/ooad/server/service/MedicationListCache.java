@@ -0,0 +1,54 @@
+package org.ooad.server.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.ooad.server.model.BaseMedication;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of each user's medication list, keyed by user id.
+ * MedicationService invalidates a user's entry on every write to their medications;
+ * Caffeine blocks an invalidation until any in-flight load for that key finishes,
+ * so a slow reader cannot re-insert a stale list.
+ * Published as the "medication-lists" cache metrics.
+ */
+@Component
+public class MedicationListCache {
+
+    private final Cache<Long, List<BaseMedication>> cache;
+
+    @Autowired
+    public MedicationListCache(@Value("${medtrack.cache.medication-lists.max-size:50000}") long maxSize,
+                               @Value("${medtrack.cache.medication-lists.ttl:30m}") Duration ttl,
+                               MeterRegistry registry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "medication-lists");
+    }
+
+    public List<BaseMedication> get(Long userId, Function<Long, List<BaseMedication>> loader) {
+        return cache.get(userId, id -> List.copyOf(loader.apply(id)));
+    }
+
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            cache.invalidate(userId);
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,37 @@
+package org.ooad.server.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user version counters for medication lists, used to build ETags.
+ * Counters live in memory, so the ETag also carries a per-process epoch;
+ * after a restart every client's cached ETag stops matching and it reloads once.
+ */
+@Component
+public class MedicationListVersions {
+
+    private final long epoch = System.currentTimeMillis();
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public void bump(Long userId) {
+        if (userId != null) {
+            versions.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    public long current(Long userId) {
+        AtomicLong version = versions.get(userId);
+        return version == null ? 0L : version.get();
+    }
+
+    /**
+     * Strong ETag for the user's current list, e.g. "1718000000000-42-7".
+     */
+    public String eTag(Long userId) {
+        return "\"" + epoch + "-" + userId + "-" + current(userId) + "\"";
+    }
+}
@@ -0,0 +1,11 @@
+package org.ooad.server.service;
+
+import org.ooad.server.model.MedicationSummary;
+
+import java.util.List;
+
+/**
+ * One page of a medication listing. Pass nextCursor back as "cursor" for the next page; null on the last page.
+ */
+public record MedicationPage(List<MedicationSummary> items, String nextCursor) {
+}
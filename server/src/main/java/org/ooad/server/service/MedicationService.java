@@ -1,121 +1,509 @@
 package org.ooad.server.service;
 
+import io.micrometer.core.annotation.Timed;
 import org.ooad.server.factory.MedicationFactory;
 import org.ooad.server.model.BaseMedication;
+import org.ooad.server.model.DoseEvent;
+import org.ooad.server.model.DueDose;
 import org.ooad.server.model.Medication;
+import org.ooad.server.model.MedicationAttribute;
+import org.ooad.server.model.MedicationEvent;
+import org.ooad.server.model.MedicationLabel;
+import org.ooad.server.model.MedicationSummary;
+import org.ooad.server.model.ScheduledDose;
 import org.ooad.server.model.User;
+import org.ooad.server.observer.DueTimeIndex;
+import org.ooad.server.observer.MedicationEventStream;
 import org.ooad.server.repository.MedicationRepository;
-import org.ooad.server.repository.UserRepository;
-import org.ooad.server.strategy.InteractionStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
 
+/**
+ * Every public method is timed as medtrack.service{class=MedicationService,method=...,exception=...}.
+ */
 @Service
+@Timed("medtrack.service")
 public class MedicationService {
 
+    private static final Logger log = LoggerFactory.getLogger(MedicationService.class);
+
+    // Upper bound on rows per listing page, whatever limit the client asks for
+    static final int MAX_PAGE_SIZE = 500;
+
+    // Clinician dashboard limits, and ids per name lookup
+    static final int MAX_DASHBOARD_PATIENTS = 10_000;
+    static final int MAX_DASHBOARD_MINUTES = 24 * 60;
+    private static final int LABEL_CHUNK_SIZE = 500;
+
     private final MedicationRepository medicationRepository;
     private final MedicationFactory medicationFactory;
-    private final InteractionStrategy interactionStrategy;
-    private final UserRepository userRepository;
+    private final RegimenIndex regimenIndex;
+    private final UserLookupCache userLookupCache;
+    private final DueTimeIndex dueTimeIndex;
+    private final MedicationEventStream eventStream;
+    private final MedicationListVersions listVersions;
+    private final MedicationListCache listCache;
+    private final DoseEventLog doseEventLog;
+    private final int importChunkSize;
 
     @Autowired
     public MedicationService(MedicationRepository medicationRepository,
                              MedicationFactory medicationFactory,
-                             InteractionStrategy interactionStrategy,
-                             UserRepository userRepository) {
+                             RegimenIndex regimenIndex,
+                             UserLookupCache userLookupCache,
+                             DueTimeIndex dueTimeIndex,
+                             MedicationEventStream eventStream,
+                             MedicationListVersions listVersions,
+                             MedicationListCache listCache,
+                             DoseEventLog doseEventLog,
+                             @Value("${medtrack.import.chunk-size:1000}") int importChunkSize) {
         this.medicationRepository = medicationRepository;
         this.medicationFactory = medicationFactory;
-        this.interactionStrategy = interactionStrategy;
-        this.userRepository = userRepository;
+        this.regimenIndex = regimenIndex;
+        this.userLookupCache = userLookupCache;
+        this.dueTimeIndex = dueTimeIndex;
+        this.eventStream = eventStream;
+        this.listVersions = listVersions;
+        this.listCache = listCache;
+        this.doseEventLog = doseEventLog;
+        this.importChunkSize = Math.max(1, importChunkSize);
     }
 
     public BaseMedication addMedication(String name, String dosageForm, boolean isFoodSensitive,
                                         int dosagesPerDay, String username, LocalDateTime startTime) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new IllegalArgumentException("User not found: " + username));
+        return addMedication(name, dosageForm,
+                isFoodSensitive ? EnumSet.of(MedicationAttribute.FOOD_SENSITIVE) : EnumSet.noneOf(MedicationAttribute.class),
+                dosagesPerDay, username, startTime);
+    }
 
-        Medication medication = medicationFactory.createMedication(name, dosageForm, isFoodSensitive);
+    public BaseMedication addMedication(String name, String dosageForm, Set<MedicationAttribute> attributes,
+                                        int dosagesPerDay, String username, LocalDateTime startTime) {
+        User user = userLookupCache.require(username);
 
-        List<BaseMedication> existingEntities = medicationRepository.findByUserId(user.getId());
-        List<Medication> existingMeds = existingEntities.stream()
-                .map(m -> (Medication) m)
-                .collect(Collectors.toList());
+        Medication medication = medicationFactory.createMedication(name, dosageForm, attributes);
 
-        String warning = interactionStrategy.checkInteraction(medication, existingMeds);
+        String warning = regimenIndex.check(user.getId(), medication);
         if (warning != null) {
-            System.err.println("WARNING: " + warning);
+            log.warn("Interaction for user {}: {}", username, warning);
         }
 
-        BaseMedication baseMedication;
-        if (medication instanceof BaseMedication) {
-            baseMedication = (BaseMedication) medication;
-        } else {
-            baseMedication = new BaseMedication(medication.getName(), medication.getDosageForm(), dosagesPerDay);
-            baseMedication.setNextDueTime(medication.getNextDueTime());
-            baseMedication.setAttributes(medication.getAttributes());
-        }
+        BaseMedication saved = medicationRepository.save(toEntity(medication, dosagesPerDay, user.getId(), startTime));
+        regimenIndex.put(saved);
+        afterChange(MedicationEvent.Type.ADDED, saved);
+        log.debug("Saved for user {}: {}", username, saved.getName());
+        return saved;
+    }
 
-        baseMedication.setDosagesPerDay(dosagesPerDay);
-        baseMedication.setUserId(user.getId());
+    /**
+     * Bulk import: rows are grouped by user, each group is checked for interactions in one pass,
+     * and the medications are inserted with batched saveAll calls of importChunkSize rows.
+     * Rows for unknown users or with missing fields are rejected; the rest are imported.
+     */
+    public MedicationImportResult importMedications(List<MedicationImport> rows) {
+        return importMedications(rows, null);
+    }
 
-        // FIX: Override start time if custom time provided
-        if (startTime != null) {
-            baseMedication.setNextDueTime(startTime);
+    /**
+     * Bulk import on behalf of one account: rows without a username are that user's, rows naming anyone else
+     * are rejected. A null owner (administrators, internal callers) accepts rows for any user.
+     */
+    public MedicationImportResult importMedications(List<MedicationImport> rows, String owner) {
+        MedicationImportResult result = new MedicationImportResult();
+        Map<String, List<MedicationImport>> byUser = new LinkedHashMap<>();
+        for (MedicationImport submitted : rows) {
+            MedicationImport row = owner == null ? submitted : assignTo(submitted, owner);
+            if (row == null) {
+                result.reject("Not permitted to import for " + submitted.username() + " (" + submitted.name() + ")");
+                continue;
+            }
+            String problem = validate(row);
+            if (problem != null) {
+                result.reject(problem);
+            } else {
+                byUser.computeIfAbsent(row.username(), u -> new ArrayList<>()).add(row);
+            }
         }
 
-        BaseMedication saved = medicationRepository.save(baseMedication);
-        System.out.println("Saved for user " + username + ": " + saved.getName());
-        return saved;
+        List<BaseMedication> pending = new ArrayList<>();
+        for (Map.Entry<String, List<MedicationImport>> group : byUser.entrySet()) {
+            Optional<User> user = userLookupCache.findByUsername(group.getKey());
+            if (user.isEmpty()) {
+                group.getValue().forEach(row -> result.reject("User not found: " + row.username() + " (" + row.name() + ")"));
+                continue;
+            }
+            Long userId = user.get().getId();
+            List<Medication> candidates = group.getValue().stream()
+                    .map(row -> medicationFactory.createMedication(row.name(), row.dosageForm(), row.isFoodSensitive()))
+                    .toList();
+            List<String> warnings = regimenIndex.checkAll(userId, candidates);
+            for (int i = 0; i < candidates.size(); i++) {
+                MedicationImport row = group.getValue().get(i);
+                if (warnings.get(i) != null) {
+                    result.warn(row.username() + ": " + warnings.get(i));
+                }
+                pending.add(toEntity(candidates.get(i), row.dosagesPerDayOrDefault(), userId, row.startTime()));
+            }
+        }
+
+        for (int from = 0; from < pending.size(); from += importChunkSize) {
+            List<BaseMedication> saved = medicationRepository.saveAll(
+                    pending.subList(from, Math.min(from + importChunkSize, pending.size())));
+            for (BaseMedication med : saved) {
+                regimenIndex.put(med);
+                afterChange(MedicationEvent.Type.ADDED, med);
+            }
+            result.imported(saved.size());
+        }
+        log.info("Bulk import: {} saved, {} rejected", result.getImported(), result.getRejected());
+        return result;
     }
 
     public List<BaseMedication> getUserMedications(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new IllegalArgumentException("User not found: " + username));
-        return medicationRepository.findByUserId(user.getId());
+        User user = userLookupCache.require(username);
+        return listCache.get(user.getId(), medicationRepository::findByUserId);
+    }
+
+    /**
+     * Keyset-paged listing ordered by due time, medications without one last,
+     * optionally filtered by due range and required attributes.
+     * Rows come from a constructor projection, so only the listed columns are read.
+     */
+    public MedicationPage listMedications(String username, LocalDateTime dueAfter, LocalDateTime dueBefore,
+                                          Set<MedicationAttribute> attributes, String cursor, int limit) {
+        User user = userLookupCache.require(username);
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        MedicationCursor after = cursor == null || cursor.isBlank() ? null : MedicationCursor.decode(cursor);
+
+        // One extra row tells whether another page follows
+        List<MedicationSummary> rows = medicationRepository.findSummaries(user.getId(), dueAfter, dueBefore,
+                MedicationAttribute.toFlags(attributes),
+                after == null ? null : after.due(), after == null ? null : after.id(), pageSize + 1);
+        if (rows.size() <= pageSize) {
+            return new MedicationPage(rows, null);
+        }
+        List<MedicationSummary> page = rows.subList(0, pageSize);
+        return new MedicationPage(List.copyOf(page), MedicationCursor.after(page.get(pageSize - 1)).encode());
+    }
+
+    /**
+     * Clinician dashboard: doses due for any of the given patients within the request's window, earliest first.
+     * Due times come from the in-memory index; names are then read by id, LABEL_CHUNK_SIZE at a time.
+     */
+    public List<DueDose> getDueDoses(DueDoseRequest request) {
+        if (request.userIds() == null || request.userIds().isEmpty()) {
+            return List.of();
+        }
+        if (request.userIds().size() > MAX_DASHBOARD_PATIENTS) {
+            throw new IllegalArgumentException("At most " + MAX_DASHBOARD_PATIENTS + " patients per request");
+        }
+        int within = request.withinMinutesOrDefault();
+        int overdue = request.overdueMinutesOrDefault();
+        if (within < 0 || within > MAX_DASHBOARD_MINUTES || overdue < 0 || overdue > MAX_DASHBOARD_MINUTES) {
+            throw new IllegalArgumentException("withinMinutes and overdueMinutes must be between 0 and " + MAX_DASHBOARD_MINUTES);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ScheduledDose> due = dueTimeIndex.dueBetween(now.minusMinutes(overdue), now.plusMinutes(within),
+                new HashSet<>(request.userIds()));
+
+        List<DueDose> result = new ArrayList<>(due.size());
+        for (int from = 0; from < due.size(); from += LABEL_CHUNK_SIZE) {
+            List<ScheduledDose> chunk = due.subList(from, Math.min(from + LABEL_CHUNK_SIZE, due.size()));
+            Map<Long, MedicationLabel> labels = new HashMap<>();
+            for (MedicationLabel label : medicationRepository.findLabels(
+                    chunk.stream().map(ScheduledDose::medicationId).toList())) {
+                labels.put(label.id(), label);
+            }
+            for (ScheduledDose dose : chunk) {
+                MedicationLabel label = labels.get(dose.medicationId());
+                if (label != null) { // deleted since it was indexed
+                    result.add(new DueDose(dose.medicationId(), dose.userId(), label.username(), label.name(),
+                            label.dosageForm(), dose.dueTime(), dose.dueTime().isBefore(now)));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * ETag of the user's medication list; changes whenever one of their medications does.
+     * Lets the controller answer conditional GETs without loading the list.
+     */
+    public String getListETag(String username) {
+        User user = userLookupCache.require(username);
+        return listVersions.eTag(user.getId());
+    }
+
+    /**
+     * Opens a Server-Sent Events stream of changes to the user's medications.
+     */
+    public SseEmitter openEventStream(String username) {
+        User user = userLookupCache.require(username);
+        return eventStream.subscribe(user.getId());
     }
 
     public BaseMedication updateMedication(Long id, String name, String dosageForm, int dosagesPerDay) {
-        Optional<BaseMedication> medOpt = medicationRepository.findById(id);
+        return updateMedication(id, name, dosageForm, dosagesPerDay, null);
+    }
+
+    /**
+     * Same as above for the signed-in user: another user's medication is reported as not found.
+     */
+    public BaseMedication updateMedication(Long id, String name, String dosageForm, int dosagesPerDay, String username) {
+        Long callerId = callerId(username);
+        Optional<BaseMedication> medOpt = medicationRepository.findById(id).filter(med -> ownedBy(med.getUserId(), callerId));
         if (medOpt.isPresent()) {
             BaseMedication med = medOpt.get();
             med.setName(name);
             med.setDosageForm(dosageForm);
             med.setDosagesPerDay(dosagesPerDay);
-            medicationRepository.save(med);
-            return med;
+            // Throws ObjectOptimisticLockingFailureException if the row changed since it was read
+            BaseMedication saved = medicationRepository.save(med);
+            regimenIndex.put(saved);
+            afterChange(MedicationEvent.Type.UPDATED, saved);
+            return saved;
         }
-        throw new IllegalArgumentException("Medication ID " + id + " not found.");
+        throw notFound(id);
     }
 
     public void deleteMedication(Long id) {
-        if (medicationRepository.existsById(id)) {
-            medicationRepository.deleteById(id);
+        deleteMedication(id, null);
+    }
+
+    public void deleteMedication(Long id, String username) {
+        Long callerId = callerId(username);
+        Optional<BaseMedication> medOpt = medicationRepository.findById(id).filter(med -> ownedBy(med.getUserId(), callerId));
+        if (medOpt.isPresent()) {
+            medicationRepository.delete(medOpt.get());
+            dueTimeIndex.remove(id);
+            regimenIndex.remove(medOpt.get().getUserId(), id);
+            listVersions.bump(medOpt.get().getUserId());
+            listCache.invalidate(medOpt.get().getUserId());
+            eventStream.publish(medOpt.get().getUserId(), MedicationEvent.removed(id));
         } else {
-            throw new IllegalArgumentException("Medication ID " + id + " not found.");
+            throw notFound(id);
         }
     }
 
+    /**
+     * Fast path: a single UPDATE using the due time and dosage the reminder index already knows, applied
+     * only if the row still has them; otherwise the row's current schedule is re-read and the update retried.
+     * Falls back to load-modify-save if the dose isn't indexed or has no due time.
+     */
     public void takeMedication(Long id) {
-        Optional<BaseMedication> medOpt = medicationRepository.findById(id);
+        advanceToNextDose(id, null, MedicationEvent.Type.TAKEN, DoseEvent.Type.TAKEN);
+    }
+
+    /**
+     * Take, skip and snooze for the signed-in user: a medication that is missing or belongs to someone else
+     * throws IllegalArgumentException, so the two cases look the same to the caller.
+     */
+    public void takeMedication(Long id, String username) {
+        advanceToNextDose(id, requireCallerId(username), MedicationEvent.Type.TAKEN, DoseEvent.Type.TAKEN);
+    }
+
+    /**
+     * Skipping moves on to the next dose like taking does, but is recorded as skipped.
+     */
+    public void skipMedication(Long id) {
+        advanceToNextDose(id, null, MedicationEvent.Type.UPDATED, DoseEvent.Type.SKIPPED);
+    }
+
+    public void skipMedication(Long id, String username) {
+        advanceToNextDose(id, requireCallerId(username), MedicationEvent.Type.UPDATED, DoseEvent.Type.SKIPPED);
+    }
+
+    public void snoozeMedication(Long id) {
+        snooze(id, null);
+    }
+
+    public void snoozeMedication(Long id, String username) {
+        snooze(id, requireCallerId(username));
+    }
+
+    private void snooze(Long id, Long callerId) {
+        ScheduledDose dose = dueTimeIndex.get(id);
+        if (dose != null && !ownedBy(dose.userId(), callerId)) {
+            throw notFound(id);
+        }
+        // Compare-and-set on the due time: if the row moved on since it was indexed, re-read it and try again
+        while (dose != null) {
+            LocalDateTime next = LocalDateTime.now().plusMinutes(15);
+            if (medicationRepository.updateNextDueTime(id, dose.dueTime(), next) == 1) {
+                doseEventLog.record(id, dose.userId(), DoseEvent.Type.SNOOZED, dose.scheduledFor());
+                afterDueTimeChange(MedicationEvent.Type.SNOOZED, dose.snoozedUntil(next));
+                return;
+            }
+            dose = medicationRepository.findScheduledDose(id).orElse(null);
+        }
+        dueTimeIndex.remove(id);
+        Optional<BaseMedication> medOpt = medicationRepository.findById(id).filter(med -> ownedBy(med.getUserId(), callerId));
+        if (medOpt.isEmpty() && callerId != null) {
+            throw notFound(id);
+        }
         if (medOpt.isPresent()) {
             BaseMedication med = medOpt.get();
-            int hoursInterval = 24 / Math.max(1, med.getDosagesPerDay());
-            med.setNextDueTime(LocalDateTime.now().plusHours(hoursInterval));
+            LocalDateTime scheduledFor = med.getScheduledFor();
+            med.snoozeUntil(LocalDateTime.now().plusMinutes(15));
             medicationRepository.save(med);
+            doseEventLog.record(id, med.getUserId(), DoseEvent.Type.SNOOZED, scheduledFor);
+            afterChange(MedicationEvent.Type.SNOOZED, med);
         }
     }
 
-    public void snoozeMedication(Long id) {
-        Optional<BaseMedication> medOpt = medicationRepository.findById(id);
+    /**
+     * Records a dose that passed its grace window and moves the schedule on to the next dose
+     * on the same rhythm, counted from when the dose was scheduled (not from a snooze). Slots that also went by while the dose was overdue (e.g. the server was down)
+     * are recorded as missed too, one event each, so adherence counts every dose the user did not take.
+     * Does nothing if the dose was taken, snoozed or changed in the meantime.
+     */
+    public void recordMissedDose(Medication missed) {
+        Optional<BaseMedication> medOpt = medicationRepository.findById(missed.getId());
+        if (medOpt.isEmpty() || !Objects.equals(medOpt.get().getNextDueTime(), missed.getNextDueTime())) {
+            return;
+        }
+        BaseMedication med = medOpt.get();
+        LocalDateTime scheduledFor = med.getScheduledFor();
+        Duration interval = Duration.ofHours(24 / Math.max(1, med.getDosagesPerDay()));
+        LocalDateTime now = LocalDateTime.now();
+        List<LocalDateTime> missedSlots = new ArrayList<>();
+        LocalDateTime next = scheduledFor;
+        do {
+            missedSlots.add(next);
+            next = next.plus(interval);
+        } while (!next.isAfter(now));
+        med.setNextDueTime(next);
+        try {
+            medicationRepository.save(med);
+        } catch (OptimisticLockingFailureException e) {
+            // The user acted on the dose while it was being marked missed; their action wins
+            return;
+        }
+        for (LocalDateTime slot : missedSlots) {
+            doseEventLog.record(med.getId(), med.getUserId(), DoseEvent.Type.MISSED, slot);
+        }
+        afterChange(MedicationEvent.Type.MISSED, med);
+    }
+
+    private void advanceToNextDose(Long id, Long callerId, MedicationEvent.Type eventType, DoseEvent.Type doseType) {
+        ScheduledDose dose = dueTimeIndex.get(id);
+        if (dose != null && !ownedBy(dose.userId(), callerId)) {
+            throw notFound(id);
+        }
+        while (dose != null) {
+            LocalDateTime next = LocalDateTime.now().plusHours(24 / Math.max(1, dose.dosagesPerDay()));
+            if (medicationRepository.updateNextDueTime(id, dose.dosagesPerDay(), dose.dueTime(), next) == 1) {
+                doseEventLog.record(id, dose.userId(), doseType, dose.scheduledFor());
+                afterDueTimeChange(eventType, dose.withDueTime(next));
+                return;
+            }
+            dose = medicationRepository.findScheduledDose(id).orElse(null);
+        }
+        Optional<BaseMedication> medOpt = medicationRepository.findById(id).filter(med -> ownedBy(med.getUserId(), callerId));
+        if (medOpt.isEmpty() && callerId != null) {
+            throw notFound(id);
+        }
         if (medOpt.isPresent()) {
             BaseMedication med = medOpt.get();
-            med.setNextDueTime(LocalDateTime.now().plusMinutes(15));
+            LocalDateTime scheduledFor = med.getScheduledFor();
+            int hoursInterval = 24 / Math.max(1, med.getDosagesPerDay());
+            med.setNextDueTime(LocalDateTime.now().plusHours(hoursInterval));
             medicationRepository.save(med);
+            doseEventLog.record(id, med.getUserId(), doseType, scheduledFor);
+            afterChange(eventType, med);
+        }
+    }
+
+    // Keeps the reminder index, list version and list cache current and pushes the change to the user's open streams
+    private void afterChange(MedicationEvent.Type type, BaseMedication med) {
+        dueTimeIndex.schedule(med);
+        listVersions.bump(med.getUserId());
+        listCache.invalidate(med.getUserId());
+        eventStream.publish(med.getUserId(), MedicationEvent.of(type, med));
+    }
+
+    // Same bookkeeping as afterChange for updates that only moved the due time and never loaded the entity
+    private void afterDueTimeChange(MedicationEvent.Type type, ScheduledDose dose) {
+        dueTimeIndex.schedule(dose);
+        listVersions.bump(dose.userId());
+        listCache.invalidate(dose.userId());
+        eventStream.publish(dose.userId(),
+                MedicationEvent.dueTimeChanged(type, dose.medicationId(), dose.dueTime()));
+    }
+
+    private BaseMedication toEntity(Medication medication, int dosagesPerDay, Long userId, LocalDateTime startTime) {
+        BaseMedication baseMedication;
+        if (medication instanceof BaseMedication) {
+            baseMedication = (BaseMedication) medication;
+        } else {
+            baseMedication = new BaseMedication(medication.getName(), medication.getDosageForm(), dosagesPerDay);
+            baseMedication.setNextDueTime(medication.getNextDueTime());
+            baseMedication.setAttributeFlags(medication.getAttributeFlags());
+        }
+
+        baseMedication.setDosagesPerDay(dosagesPerDay);
+        baseMedication.setUserId(userId);
+
+        // FIX: Override start time if custom time provided
+        if (startTime != null) {
+            baseMedication.setNextDueTime(startTime);
+        }
+        return baseMedication;
+    }
+
+    // Null caller: internal use, no ownership check
+    private Long callerId(String username) {
+        return username == null ? null : requireCallerId(username);
+    }
+
+    private Long requireCallerId(String username) {
+        return userLookupCache.require(Objects.requireNonNull(username, "username")).getId();
+    }
+
+    private static boolean ownedBy(Long ownerId, Long callerId) {
+        return callerId == null || callerId.equals(ownerId);
+    }
+
+    private static IllegalArgumentException notFound(Long id) {
+        return new IllegalArgumentException("Medication ID " + id + " not found.");
+    }
+
+    // The row with its username defaulted to the owner, or null if it names another user
+    private static MedicationImport assignTo(MedicationImport row, String owner) {
+        if (row.username() == null || row.username().isBlank()) {
+            return new MedicationImport(owner, row.name(), row.dosageForm(), row.foodSensitive(), row.dosagesPerDay(), row.startTime());
+        }
+        return row.username().equals(owner) ? row : null;
+    }
+
+    private static String validate(MedicationImport row) {
+        if (row.username() == null || row.username().isBlank()) {
+            return "Missing username for " + row.name();
+        }
+        if (row.name() == null || row.name().isBlank() || row.dosageForm() == null || row.dosageForm().isBlank()) {
+            return "Missing name or dosage form for user " + row.username();
+        }
+        if (row.dosagesPerDayOrDefault() < 1) {
+            return "Invalid dosagesPerDay for " + row.name() + " (user " + row.username() + ")";
         }
+        return null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+package org.ooad.server.service;
+
+import jakarta.annotation.PostConstruct;
+import org.ooad.server.model.Medication;
+import org.ooad.server.observer.ReminderObserver;
+import org.ooad.server.observer.ReminderSystem;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Observer that turns the MISSED transition into a dose event and moves the schedule on.
+ */
+@Component
+public class MissedDoseRecorder implements ReminderObserver {
+
+    private final ReminderSystem reminderSystem;
+    private final MedicationService medicationService;
+
+    @Autowired
+    public MissedDoseRecorder(ReminderSystem reminderSystem, MedicationService medicationService) {
+        this.reminderSystem = reminderSystem;
+        this.medicationService = medicationService;
+    }
+
+    @PostConstruct
+    public void init() {
+        reminderSystem.attach(this);
+    }
+
+    @Override
+    public void update(Medication medication) {
+        // Alerts are handled by the notification observers
+    }
+
+    @Override
+    public void missed(Medication medication) {
+        medicationService.recordMissedDose(medication);
+    }
+}
@@ -0,0 +1,85 @@
+package org.ooad.server.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool for BCrypt work. Each hash costs tens of milliseconds of CPU, so logins run here
+ * instead of on request threads; when the queue is full new work is rejected rather than piling up.
+ * Work that waited longer than the queue timeout is dropped when it reaches a thread: its caller
+ * has most likely given up, and hashing for it would only delay the requests behind it.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor pool;
+    private final long queueTimeoutNanos;
+
+    private final Timer hashes;
+    private final Timer queueWait;
+    private final Counter rejectedFull;
+    private final Counter rejectedTimeout;
+
+    @Autowired
+    public PasswordHashingExecutor(@Value("${medtrack.auth.hash-threads:0}") int threads,
+                                   @Value("${medtrack.auth.hash-queue:64}") int queueCapacity,
+                                   @Value("${medtrack.auth.hash-queue-timeout:2s}") Duration queueTimeout,
+                                   MeterRegistry registry) {
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.pool = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        Gauge.builder("medtrack.auth.hash.queue.depth", pool, p -> p.getQueue().size()).register(registry);
+        this.hashes = Timer.builder("medtrack.auth.hash").register(registry);
+        this.queueWait = Timer.builder("medtrack.auth.hash.queue.wait").register(registry);
+        this.rejectedFull = Counter.builder("medtrack.auth.hash.rejected").tag("reason", "full").register(registry);
+        this.rejectedTimeout = Counter.builder("medtrack.auth.hash.rejected").tag("reason", "timeout").register(registry);
+    }
+
+    /**
+     * Runs the hashing task on the pool. The future fails with RejectedExecutionException if the pool is saturated
+     * or the task sat in the queue past the timeout.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long waited = System.nanoTime() - queuedAt;
+                queueWait.record(waited, TimeUnit.NANOSECONDS);
+                if (waited > queueTimeoutNanos) {
+                    rejectedTimeout.increment();
+                    throw new RejectedExecutionException("Waited " + waited / 1_000_000 + " ms for a hashing thread");
+                }
+                return hashes.record(task);
+            }, pool);
+        } catch (RejectedExecutionException e) {
+            rejectedFull.increment();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
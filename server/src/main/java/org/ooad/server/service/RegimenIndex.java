@@ -0,0 +1,169 @@
+package org.ooad.server.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.ooad.server.model.BaseMedication;
+import org.ooad.server.model.Medication;
+import org.ooad.server.repository.MedicationRepository;
+import org.ooad.server.strategy.InteractionStrategy;
+import org.ooad.server.strategy.Regimen;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps each active user's regimen pre-processed by the InteractionStrategy,
+ * so adding a medication checks it against the regimen instead of reloading the user's list.
+ * A regimen is built from the database on first use and then maintained in place.
+ * Updates go through the cache's map view, which waits for an in-flight build of the same user.
+ * Every check is timed as medtrack.interactions.check, tagged result=interaction or clear for the hit rate.
+ */
+@Component
+public class RegimenIndex {
+
+    private final InteractionStrategy interactionStrategy;
+    private final MedicationRepository medicationRepository;
+    private final Cache<Long, Regimen> regimens;
+    private final Timer interactionFound;
+    private final Timer clear;
+
+    @Autowired
+    public RegimenIndex(InteractionStrategy interactionStrategy,
+                        MedicationRepository medicationRepository,
+                        @Value("${medtrack.cache.regimens.max-size:50000}") long maxSize,
+                        @Value("${medtrack.cache.regimens.idle-ttl:2h}") Duration idleTtl,
+                        MeterRegistry registry) {
+        this.interactionStrategy = interactionStrategy;
+        this.medicationRepository = medicationRepository;
+        this.regimens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(idleTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, regimens, "regimens");
+        this.interactionFound = checkTimer(registry, "interaction");
+        this.clear = checkTimer(registry, "clear");
+    }
+
+    public String check(Long userId, Medication newMedication) {
+        Regimen regimen = regimens.get(userId, this::build);
+        long started = System.nanoTime();
+        String warning = regimen.check(newMedication);
+        recordCheck(started, warning);
+        return warning;
+    }
+
+    /**
+     * Checks a batch of new medications for one user in a single pass: each candidate is checked
+     * against the stored regimen and then against a scratch regimen of the candidates before it,
+     * which is extended as the batch goes, so each candidate is scanned once rather than once per later row.
+     * @return One entry per candidate: a warning message, or null if safe.
+     */
+    public List<String> checkAll(Long userId, List<? extends Medication> candidates) {
+        Regimen stored = regimens.get(userId, this::build);
+        Regimen earlier = interactionStrategy.newRegimen();
+        List<String> warnings = new ArrayList<>(candidates.size());
+        long added = 0;
+        for (Medication candidate : candidates) {
+            long started = System.nanoTime();
+            String warning = stored.check(candidate);
+            if (warning == null && added > 0) {
+                warning = earlier.check(candidate);
+            }
+            recordCheck(started, warning);
+            warnings.add(warning);
+            added++;
+            earlier.add(new Candidate(-added, candidate));
+        }
+        return warnings;
+    }
+
+    /**
+     * Adds or replaces the medication in its user's regimen, if that regimen is loaded.
+     */
+    public void put(BaseMedication medication) {
+        regimens.asMap().computeIfPresent(medication.getUserId(), (id, regimen) -> {
+            regimen.add(medication);
+            return regimen;
+        });
+    }
+
+    public void remove(Long userId, Long medicationId) {
+        regimens.asMap().computeIfPresent(userId, (id, regimen) -> {
+            regimen.remove(medicationId);
+            return regimen;
+        });
+    }
+
+    private void recordCheck(long started, String warning) {
+        (warning == null ? clear : interactionFound).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+
+    private static Timer checkTimer(MeterRegistry registry, String result) {
+        return Timer.builder("medtrack.interactions.check")
+                .description("Time to check one new medication against a user's regimen (building it not included)")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * An unsaved medication has no id yet, and a Regimen keys its entries by id;
+     * candidates are keyed by negative batch position instead.
+     */
+    private static final class Candidate implements Medication {
+        private final Long id;
+        private final Medication medication;
+
+        Candidate(Long id, Medication medication) {
+            this.id = id;
+            this.medication = medication;
+        }
+
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return medication.getName();
+        }
+
+        @Override
+        public String getDosageForm() {
+            return medication.getDosageForm();
+        }
+
+        @Override
+        public int getAttributeFlags() {
+            return medication.getAttributeFlags();
+        }
+
+        @Override
+        public LocalDateTime getNextDueTime() {
+            return medication.getNextDueTime();
+        }
+
+        @Override
+        public Long getUserId() {
+            return medication.getUserId();
+        }
+    }
+
+    private Regimen build(Long userId) {
+        Regimen regimen = interactionStrategy.newRegimen();
+        for (BaseMedication medication : medicationRepository.findByUserId(userId)) {
+            regimen.add(medication);
+        }
+        return regimen;
+    }
+}
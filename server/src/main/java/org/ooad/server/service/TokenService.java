@@ -0,0 +1,47 @@
+package org.ooad.server.service;
+
+import org.ooad.server.config.TokenConfig;
+import org.ooad.server.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Issues short-lived signed access tokens. The subject is the username, so the
+ * token alone identifies the caller on every later request.
+ */
+@Service
+public class TokenService {
+
+    private final JwtEncoder jwtEncoder;
+    private final Duration ttl;
+
+    @Autowired
+    public TokenService(JwtEncoder jwtEncoder, @Value("${medtrack.auth.token-ttl:30m}") Duration ttl) {
+        this.jwtEncoder = jwtEncoder;
+        this.ttl = ttl;
+    }
+
+    public AccessToken issue(User user) {
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer(TokenConfig.ISSUER)
+                .subject(user.getUsername())
+                .issuedAt(now)
+                .expiresAt(now.plus(ttl))
+                .claim("uid", user.getId())
+                .claim("roles", user.getRoles())
+                .build();
+        JwsHeader header = JwsHeader.with(MacAlgorithm.HS256).build();
+        String token = jwtEncoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+        return new AccessToken(token, "Bearer", ttl.toSeconds());
+    }
+}
@@ -0,0 +1,60 @@
+package org.ooad.server.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.ooad.server.model.User;
+import org.ooad.server.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded username -> User cache shared by UserService and MedicationService,
+ * so most requests skip the findByUsername query.
+ * Unknown usernames are not cached; registration invalidates the name explicitly.
+ * Hit/miss statistics are published as the "users" cache metrics.
+ */
+@Component
+public class UserLookupCache {
+
+    private final UserRepository userRepository;
+    private final Cache<String, User> cache;
+
+    @Autowired
+    public UserLookupCache(UserRepository userRepository,
+                           @Value("${medtrack.cache.users.max-size:100000}") long maxSize,
+                           @Value("${medtrack.cache.users.ttl:10m}") Duration ttl,
+                           MeterRegistry registry) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "users");
+    }
+
+    public Optional<User> findByUsername(String username) {
+        // A null from the loader is not stored, so a later registration is seen immediately
+        return Optional.ofNullable(cache.get(username, name -> userRepository.findByUsername(name).orElse(null)));
+    }
+
+    public User require(String username) {
+        return findByUsername(username)
+                .orElseThrow(() -> new IllegalArgumentException("User not found: " + username));
+    }
+
+    public void invalidate(String username) {
+        cache.invalidate(username);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
@@ -1,50 +1,131 @@
 package org.ooad.server.service;
 
+import io.micrometer.core.annotation.Timed;
 import org.ooad.server.model.User;
 import org.ooad.server.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Every public method is timed as medtrack.service{class=UserService,method=...}; the async ones until their future completes.
+ */
 @Service
+@Timed("medtrack.service")
 public class UserService {
 
+    private static final Logger log = LoggerFactory.getLogger(UserService.class);
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserLookupCache userLookupCache;
+    private final PasswordHashingExecutor passwordHashing;
+    private final TokenService tokenService;
+    private final WebhookUrlPolicy webhookUrlPolicy;
+
+    // Checked against on unknown usernames, so a miss costs the same BCrypt work as a wrong password
+    private final String unknownUserHash;
 
     @Autowired
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       UserLookupCache userLookupCache, PasswordHashingExecutor passwordHashing,
+                       TokenService tokenService, WebhookUrlPolicy webhookUrlPolicy) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userLookupCache = userLookupCache;
+        this.passwordHashing = passwordHashing;
+        this.tokenService = tokenService;
+        this.webhookUrlPolicy = webhookUrlPolicy;
+        this.unknownUserHash = passwordEncoder.encode("unknown-user");
     }
 
     public User registerNewUser(String username, String rawPassword) {
+        requireNewUsername(username);
+        // Hash the password before saving
+        return saveNewUser(username, passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Registration for the web endpoint: the password is hashed on the hashing pool, not the request thread.
+     * Throws IllegalArgumentException right away if the name is taken.
+     */
+    public CompletableFuture<User> register(String username, String rawPassword) {
+        requireNewUsername(username);
+        return passwordHashing.submit(() -> passwordEncoder.encode(rawPassword))
+                .thenApply(hash -> saveNewUser(username, hash));
+    }
+
+    private void requireNewUsername(String username) {
+        // Uniqueness is checked against the database, never the cache
         if (userRepository.findByUsername(username).isPresent()) {
             throw new IllegalArgumentException("User already exists.");
         }
+    }
 
+    private User saveNewUser(String username, String passwordHash) {
         User user = new User();
         user.setUsername(username);
-        // Hash the password before saving
-        user.setPassword(passwordEncoder.encode(rawPassword));
+        user.setPassword(passwordHash);
+
+        User saved = userRepository.save(user);
+        log.info("New user registered: {}", username);
+        userLookupCache.invalidate(username);
+        return saved;
+    }
 
-        System.out.println("New user registered: " + username);
-        return userRepository.save(user);
+    /**
+     * Sets where reminders are delivered besides the app; null clears a channel.
+     * Throws IllegalArgumentException for a malformed email or a webhook URL the WebhookUrlPolicy refuses.
+     */
+    public User updateContact(String username, String email, String webhookUrl) {
+        if (email != null && !email.matches("[^@\\s]+@[^@\\s]+")) {
+            throw new IllegalArgumentException("Email address is not valid.");
+        }
+        if (webhookUrl != null) {
+            webhookUrlPolicy.check(webhookUrl);
+        }
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new IllegalArgumentException("User not found: " + username));
+        user.setEmail(email);
+        user.setWebhookUrl(webhookUrl);
+        User saved = userRepository.save(user);
+        userLookupCache.invalidate(username);
+        return saved;
     }
 
     public Optional<User> findByUsername(String username) {
-        return userRepository.findByUsername(username);
+        return userLookupCache.findByUsername(username);
+    }
+
+    /**
+     * Checks the password on the hashing pool and issues an access token; empty if the credentials are wrong.
+     * Later requests present the token, so BCrypt runs once per login rather than once per call.
+     * Unknown usernames still run a hash check, so response time does not reveal which accounts exist.
+     */
+    public CompletableFuture<Optional<AccessToken>> login(String username, String rawPassword) {
+        Optional<User> userOpt = userLookupCache.findByUsername(username);
+        if (userOpt.isEmpty()) {
+            return passwordHashing.submit(() -> passwordEncoder.matches(rawPassword, unknownUserHash))
+                    .thenApply(ignored -> Optional.empty());
+        }
+        User user = userOpt.get();
+        return passwordHashing.submit(() -> passwordEncoder.matches(rawPassword, user.getPassword()))
+                .thenApply(valid -> valid ? Optional.of(tokenService.issue(user)) : Optional.empty());
     }
 
     public boolean validateUser(String username, String rawPassword) {
-        Optional<User> userOpt = userRepository.findByUsername(username);
+        Optional<User> userOpt = userLookupCache.findByUsername(username);
         if (userOpt.isPresent()) {
             User user = userOpt.get();
             // Use the PasswordEncoder to check the raw password against the hashed password
             return passwordEncoder.matches(rawPassword, user.getPassword());
         }
+        passwordEncoder.matches(rawPassword, unknownUserHash);
         return false;
     }
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+package org.ooad.server.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.UnknownHostException;
+
+/**
+ * Decides which webhook URLs reminders may be POSTed to. Reminders carry medication names, so only https
+ * to public addresses is allowed: loopback, link-local (cloud metadata), private and other internal ranges
+ * are refused, so a webhook cannot be pointed at the server's own network.
+ * Checked when the URL is saved and again before each delivery, in case the name now resolves elsewhere.
+ * The check resolves the name itself, so it blocks; a name that changes its answer between this lookup and
+ * the connection is not caught.
+ * allow-local lifts both rules for local development and tests.
+ */
+@Component
+public class WebhookUrlPolicy {
+
+    private final boolean allowLocal;
+
+    @Autowired
+    public WebhookUrlPolicy(@Value("${medtrack.notifications.webhook.allow-local:false}") boolean allowLocal) {
+        this.allowLocal = allowLocal;
+    }
+
+    /**
+     * @return The parsed URL.
+     * @throws IllegalArgumentException if the URL is malformed, not https, or resolves to a non-public address.
+     */
+    public URI check(String url) {
+        URI uri;
+        try {
+            uri = new URI(url);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Webhook URL is not a valid URL.");
+        }
+        String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase();
+        if (!scheme.equals("https") && !(allowLocal && scheme.equals("http"))) {
+            throw new IllegalArgumentException("Webhook URL must use https.");
+        }
+        if (uri.getHost() == null || uri.getRawUserInfo() != null) {
+            throw new IllegalArgumentException("Webhook URL must name a host and carry no credentials.");
+        }
+        if (allowLocal) {
+            return uri;
+        }
+        InetAddress[] addresses;
+        try {
+            addresses = InetAddress.getAllByName(uri.getHost());
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("Webhook host cannot be resolved: " + uri.getHost());
+        }
+        for (InetAddress address : addresses) {
+            if (!isPublic(address)) {
+                throw new IllegalArgumentException("Webhook host must be a public address: " + uri.getHost());
+            }
+        }
+        return uri;
+    }
+
+    static boolean isPublic(InetAddress address) {
+        if (address.isLoopbackAddress() || address.isLinkLocalAddress() || address.isSiteLocalAddress()
+                || address.isAnyLocalAddress() || address.isMulticastAddress()) {
+            return false;
+        }
+        byte[] bytes = address.getAddress();
+        if (address instanceof Inet6Address) {
+            // fc00::/7 unique local
+            return (bytes[0] & 0xfe) != 0xfc;
+        }
+        int first = bytes[0] & 0xff;
+        int second = bytes[1] & 0xff;
+        // 0.0.0.0/8 "this network" and 100.64.0.0/10 carrier-grade NAT
+        return first != 0 && !(first == 100 && second >= 64 && second < 128);
+    }
+}
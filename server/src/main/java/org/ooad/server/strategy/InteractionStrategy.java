@@ -15,4 +15,12 @@ public interface InteractionStrategy {
      * @return A warning message if an interaction exists, or null if safe.
      */
     String checkInteraction(Medication newMedication, List<Medication> existingMedications);
+
+    /**
+     * Creates an empty per-user Regimen that callers keep up to date as medications change.
+     * Strategies that can pre-process medications override this; the default re-runs the list check.
+     */
+    default Regimen newRegimen() {
+        return new ListRegimen(this);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,147 @@
+package org.ooad.server.strategy;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick automaton over a fixed set of keywords.
+ * One pass over the text reports every keyword it contains, case-insensitively,
+ * without lowercasing or otherwise copying the text.
+ */
+final class KeywordMatcher {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+
+    // Per-state sorted transition labels and targets, failure links and keyword ids ending here
+    private char[][] labels;
+    private int[][] targets;
+    private int[] failure;
+    private int[][] outputs;
+
+    /**
+     * Registers a keyword and returns its id; adding the same keyword twice returns the same id.
+     */
+    int add(String keyword) {
+        return ids.computeIfAbsent(normalize(keyword), k -> ids.size());
+    }
+
+    int size() {
+        return ids.size();
+    }
+
+    /**
+     * Builds the automaton; must be called after the last add() and before scan().
+     */
+    void compile() {
+        List<Map<Character, Integer>> trie = new ArrayList<>();
+        List<List<Integer>> ends = new ArrayList<>();
+        trie.add(new HashMap<>());
+        ends.add(new ArrayList<>());
+
+        for (Map.Entry<String, Integer> keyword : ids.entrySet()) {
+            int state = 0;
+            for (char c : keyword.getKey().toCharArray()) {
+                Integer next = trie.get(state).get(c);
+                if (next == null) {
+                    next = trie.size();
+                    trie.get(state).put(c, next);
+                    trie.add(new HashMap<>());
+                    ends.add(new ArrayList<>());
+                }
+                state = next;
+            }
+            ends.get(state).add(keyword.getValue());
+        }
+
+        int states = trie.size();
+        labels = new char[states][];
+        targets = new int[states][];
+        for (int s = 0; s < states; s++) {
+            char[] keys = new char[trie.get(s).size()];
+            int i = 0;
+            for (char c : trie.get(s).keySet()) {
+                keys[i++] = c;
+            }
+            Arrays.sort(keys);
+            int[] next = new int[keys.length];
+            for (i = 0; i < keys.length; i++) {
+                next[i] = trie.get(s).get(keys[i]);
+            }
+            labels[s] = keys;
+            targets[s] = next;
+        }
+
+        // Breadth-first failure links; each state's outputs include those of its failure state
+        failure = new int[states];
+        outputs = new int[states][];
+        outputs[0] = new int[0];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int child : targets[0]) {
+            failure[child] = 0;
+            outputs[child] = toArray(ends.get(child));
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int i = 0; i < labels[state].length; i++) {
+                char c = labels[state][i];
+                int child = targets[state][i];
+                int f = failure[state];
+                while (f != 0 && transition(f, c) < 0) {
+                    f = failure[f];
+                }
+                failure[child] = Math.max(transition(f, c), 0);
+                int[] own = toArray(ends.get(child));
+                int[] inherited = outputs[failure[child]];
+                int[] merged = Arrays.copyOf(own, own.length + inherited.length);
+                System.arraycopy(inherited, 0, merged, own.length, inherited.length);
+                outputs[child] = merged;
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * Ids of every keyword found in the text.
+     */
+    BitSet scan(CharSequence text) {
+        BitSet found = new BitSet(ids.size());
+        if (text == null) {
+            return found;
+        }
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            int next = transition(state, c);
+            while (next < 0 && state != 0) {
+                state = failure[state];
+                next = transition(state, c);
+            }
+            state = next < 0 ? 0 : next;
+            for (int id : outputs[state]) {
+                found.set(id);
+            }
+        }
+        return found;
+    }
+
+    private int transition(int state, char c) {
+        int i = Arrays.binarySearch(labels[state], c);
+        return i < 0 ? -1 : targets[state][i];
+    }
+
+    private static String normalize(String keyword) {
+        return keyword.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
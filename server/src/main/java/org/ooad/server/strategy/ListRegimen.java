@@ -0,0 +1,35 @@
+package org.ooad.server.strategy;
+
+import org.ooad.server.model.Medication;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Default Regimen: keeps the medications and runs the strategy's list check.
+ */
+class ListRegimen implements Regimen {
+
+    private final InteractionStrategy strategy;
+    private final Map<Long, Medication> medications = new LinkedHashMap<>();
+
+    ListRegimen(InteractionStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    @Override
+    public synchronized void add(Medication medication) {
+        medications.put(medication.getId(), medication);
+    }
+
+    @Override
+    public synchronized void remove(Long medicationId) {
+        medications.remove(medicationId);
+    }
+
+    @Override
+    public synchronized String check(Medication newMedication) {
+        return strategy.checkInteraction(newMedication, new ArrayList<>(medications.values()));
+    }
+}
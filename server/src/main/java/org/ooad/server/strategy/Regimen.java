@@ -0,0 +1,22 @@
+package org.ooad.server.strategy;
+
+import org.ooad.server.model.Medication;
+
+/**
+ * One user's current medications, pre-processed by an InteractionStrategy
+ * so a new medication can be checked without reloading the whole list.
+ */
+public interface Regimen {
+
+    /**
+     * Adds the medication, replacing any previous entry with the same id.
+     */
+    void add(Medication medication);
+
+    void remove(Long medicationId);
+
+    /**
+     * @return A warning message if the new medication interacts with the regimen, or null if safe.
+     */
+    String check(Medication newMedication);
+}
@@ -0,0 +1,279 @@
+package org.ooad.server.strategy;
+
+import org.ooad.server.model.Medication;
+import org.ooad.server.model.MedicationAttribute;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Table-driven interaction check.
+ * Rules are read from a CSV file at startup and compiled into a keyword automaton,
+ * so a check is one pass over each name plus bitset, attribute-mask and hash lookups,
+ * however many rules the table holds.
+ */
+@Component
+@Primary
+public class RuleBasedInteractionStrategy implements InteractionStrategy {
+
+    private static final BitSet EMPTY = new BitSet();
+
+    private final KeywordMatcher nameTerms = new KeywordMatcher();
+
+    // For each name term: the name terms it interacts with, and the MedicationAttribute bits
+    private final List<BitSet> namePartners = new ArrayList<>();
+    private int[] attributePartners = new int[16];
+
+    // Message templates keyed by (term, partner) pair; attribute partners are MedicationAttribute ordinals
+    private final Map<Long, String> nameMessages = new HashMap<>();
+    private final Map<Long, String> attributeMessages = new HashMap<>();
+
+    @Autowired
+    public RuleBasedInteractionStrategy(@Value("${medtrack.interactions.rules:classpath:interaction-rules.csv}") Resource rules) {
+        try (Reader reader = new InputStreamReader(rules.getInputStream(), StandardCharsets.UTF_8)) {
+            load(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read interaction rules from " + rules, e);
+        }
+    }
+
+    public RuleBasedInteractionStrategy(Reader rules) {
+        load(rules);
+    }
+
+    @Override
+    public String checkInteraction(Medication newMedication, List<Medication> existingMedications) {
+        Query query = new Query(newMedication);
+        if (query.isEmpty()) {
+            return null;
+        }
+        for (Medication existing : existingMedications) {
+            String warning = query.against(existing.getName(),
+                    query.wantsNames() ? nameTerms.scan(existing.getName()) : EMPTY,
+                    existing.getAttributeFlags());
+            if (warning != null) {
+                return warning;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Regimen kept as term bitsets: each medication's name and attributes are scanned once when added,
+     * and the union over the regimen lets most checks finish with two bitset intersections.
+     */
+    @Override
+    public Regimen newRegimen() {
+        return new TokenRegimen();
+    }
+
+    public int ruleCount() {
+        return nameMessages.size() / 2 + attributeMessages.size();
+    }
+
+    /**
+     * A new medication's terms and the partner terms it would interact with.
+     */
+    private final class Query {
+        final Medication medication;
+        final BitSet terms;
+        final BitSet wantedNames = new BitSet();
+        int wantedAttributes;
+
+        Query(Medication medication) {
+            this.medication = medication;
+            this.terms = nameTerms.scan(medication.getName());
+            for (int t = terms.nextSetBit(0); t >= 0; t = terms.nextSetBit(t + 1)) {
+                wantedNames.or(namePartners.get(t));
+                wantedAttributes |= attributePartners[t];
+            }
+        }
+
+        boolean isEmpty() {
+            return wantedNames.isEmpty() && wantedAttributes == 0;
+        }
+
+        boolean wantsNames() {
+            return !wantedNames.isEmpty();
+        }
+
+        // Name rules are checked before attribute rules for each existing medication
+        String against(String existingName, BitSet existingNames, int existingFlags) {
+            if (wantedNames.intersects(existingNames)) {
+                String template = firstMatch(terms, namePartners, existingNames, nameMessages);
+                if (template != null) {
+                    return format(template, medication.getName(), existingName);
+                }
+            }
+            if ((wantedAttributes & existingFlags) != 0) {
+                String template = firstAttributeMatch(terms, existingFlags);
+                if (template != null) {
+                    return format(template, medication.getName(), existingName);
+                }
+            }
+            return null;
+        }
+    }
+
+    private final class TokenRegimen implements Regimen {
+
+        // Only the name is kept (for messages), so a cached regimen does not pin JPA entities
+        private record Entry(String name, BitSet names, int attributeFlags) {}
+
+        private final Map<Long, Entry> entries = new LinkedHashMap<>();
+        private BitSet allNames = new BitSet();
+        private int allAttributes;
+
+        @Override
+        public synchronized void add(Medication medication) {
+            Entry entry = new Entry(medication.getName(),
+                    nameTerms.scan(medication.getName()),
+                    medication.getAttributeFlags());
+            if (entries.put(medication.getId(), entry) != null) {
+                recomputeUnion();
+            } else {
+                allNames.or(entry.names());
+                allAttributes |= entry.attributeFlags();
+            }
+        }
+
+        @Override
+        public synchronized void remove(Long medicationId) {
+            if (entries.remove(medicationId) != null) {
+                recomputeUnion();
+            }
+        }
+
+        @Override
+        public synchronized String check(Medication newMedication) {
+            Query query = new Query(newMedication);
+            if (!query.wantedNames.intersects(allNames) && (query.wantedAttributes & allAttributes) == 0) {
+                return null;
+            }
+            for (Entry entry : entries.values()) {
+                String warning = query.against(entry.name(), entry.names(), entry.attributeFlags());
+                if (warning != null) {
+                    return warning;
+                }
+            }
+            return null;
+        }
+
+        private void recomputeUnion() {
+            allNames = new BitSet();
+            allAttributes = 0;
+            for (Entry entry : entries.values()) {
+                allNames.or(entry.names());
+                allAttributes |= entry.attributeFlags();
+            }
+        }
+    }
+
+    private String firstMatch(BitSet newTerms, List<BitSet> partners, BitSet existingTerms, Map<Long, String> messages) {
+        for (int t = newTerms.nextSetBit(0); t >= 0; t = newTerms.nextSetBit(t + 1)) {
+            BitSet partnerTerms = partners.get(t);
+            if (partnerTerms.intersects(existingTerms)) {
+                BitSet hit = (BitSet) partnerTerms.clone();
+                hit.and(existingTerms);
+                return messages.get(pair(t, hit.nextSetBit(0)));
+            }
+        }
+        return null;
+    }
+
+    private String firstAttributeMatch(BitSet newTerms, int existingFlags) {
+        for (int t = newTerms.nextSetBit(0); t >= 0; t = newTerms.nextSetBit(t + 1)) {
+            int hit = attributePartners[t] & existingFlags;
+            if (hit != 0) {
+                return attributeMessages.get(pair(t, Integer.numberOfTrailingZeros(hit)));
+            }
+        }
+        return null;
+    }
+
+    private static String format(String template, String newName, String existingName) {
+        return template.replace("{new}", newName).replace("{existing}", existingName);
+    }
+
+    private void load(Reader rules) {
+        try (BufferedReader reader = new BufferedReader(rules)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(",", 4);
+                if (fields.length != 4) {
+                    throw new IllegalArgumentException("Malformed interaction rule at line " + lineNumber + ": " + line);
+                }
+                addRule(fields[0], fields[1], fields[2].trim(), fields[3].trim(), lineNumber);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read interaction rules", e);
+        }
+        nameTerms.compile();
+    }
+
+    private void addRule(String term, String other, String match, String message, int lineNumber) {
+        int a = nameTerm(term);
+        switch (match) {
+            case "name" -> {
+                int b = nameTerm(other);
+                namePartners.get(a).set(b);
+                namePartners.get(b).set(a);
+                nameMessages.putIfAbsent(pair(a, b), message);
+                nameMessages.putIfAbsent(pair(b, a), message);
+            }
+            case "attribute" -> {
+                MedicationAttribute attribute = attribute(other, lineNumber);
+                attributePartners[a] |= attribute.bit();
+                attributeMessages.putIfAbsent(pair(a, attribute.ordinal()), message);
+            }
+            default -> throw new IllegalArgumentException(
+                    "Unknown match type '" + match + "' at line " + lineNumber);
+        }
+    }
+
+    private int nameTerm(String term) {
+        int id = nameTerms.add(term);
+        while (namePartners.size() <= id) {
+            namePartners.add(new BitSet());
+        }
+        if (attributePartners.length <= id) {
+            attributePartners = Arrays.copyOf(attributePartners, Math.max(id + 1, attributePartners.length * 2));
+        }
+        return id;
+    }
+
+    private static MedicationAttribute attribute(String name, int lineNumber) {
+        try {
+            return MedicationAttribute.valueOf(name.trim().toUpperCase(Locale.ROOT).replace(' ', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown medication attribute '" + name.trim() + "' at line " + lineNumber);
+        }
+    }
+
+    private static long pair(int term, int partner) {
+        return ((long) term << 32) | (partner & 0xffffffffL);
+    }
+}
@@ -1,6 +1,7 @@
 package org.ooad.server.strategy;
 
 import org.ooad.server.model.Medication;
+import org.ooad.server.model.MedicationAttribute;
 import org.springframework.stereotype.Component;
 import java.util.List;
 
@@ -22,7 +23,7 @@ public class StandardInteractionStrategy implements InteractionStrategy {
                 return "CRITICAL INTERACTION: " + newMedication.getName() + " and " + existing.getName() + " may cause bleeding risks.";
             }
 
-            if (newName.contains("cipro") && existing.getAttributes().contains("Food Sensitive")) {
+            if (newName.contains("cipro") && existing.has(MedicationAttribute.FOOD_SENSITIVE)) {
                 return "INTERACTION: " + newMedication.getName() + " might interact with food/supplements associated with " + existing.getName();
             }
         }
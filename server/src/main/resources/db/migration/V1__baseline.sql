@@ -0,0 +1,78 @@
+-- Baseline schema: users, medications, dose history, adherence rollups and failed notifications.
+-- Sequence increments match the entities' allocationSize so Hibernate can hand out ids in blocks.
+
+create sequence medication_seq start with 1 increment by 50;
+create sequence dose_event_seq start with 1 increment by 500;
+create sequence adherence_daily_seq start with 1 increment by 50;
+
+create table app_user (
+    id bigint generated by default as identity,
+    username varchar(255),
+    password varchar(255),
+    roles varchar(255),
+    email varchar(255),
+    webhook_url varchar(255),
+    primary key (id)
+);
+
+-- Login and every username-scoped request look users up by name
+create unique index uk_app_user_username on app_user (username);
+
+create table base_medication (
+    id bigint not null,
+    version bigint,
+    user_id bigint,
+    name varchar(255),
+    dosage_form varchar(255),
+    attribute_flags integer not null,
+    dosages_per_day integer not null,
+    next_due_time timestamp(6),
+    primary key (id)
+);
+
+create index idx_medication_next_due on base_medication (next_due_time);
+create index idx_medication_user_due on base_medication (user_id, next_due_time);
+
+create table dose_event (
+    id bigint not null,
+    medication_id bigint,
+    user_id bigint,
+    type varchar(255) check (type in ('TAKEN', 'SNOOZED', 'SKIPPED', 'MISSED')),
+    scheduled_for timestamp(6),
+    occurred_at timestamp(6),
+    event_date date,
+    primary key (id)
+);
+
+create index idx_dose_event_user_date on dose_event (user_id, event_date);
+create index idx_dose_event_medication_date on dose_event (medication_id, event_date);
+create index idx_dose_event_date on dose_event (event_date);
+
+create table adherence_daily (
+    id bigint not null,
+    medication_id bigint,
+    user_id bigint,
+    dose_date date,
+    taken bigint not null,
+    on_time bigint not null,
+    snoozed bigint not null,
+    skipped bigint not null,
+    missed bigint not null,
+    total_delay_seconds bigint not null,
+    primary key (id),
+    constraint uk_adherence_medication_date unique (medication_id, dose_date)
+);
+
+create index idx_adherence_user_date on adherence_daily (user_id, dose_date);
+
+create table dead_letter_notification (
+    id bigint generated by default as identity,
+    channel varchar(255),
+    user_id bigint,
+    recipient varchar(255),
+    payload varchar(4000),
+    error varchar(1000),
+    attempts integer not null,
+    failed_at timestamp(6),
+    primary key (id)
+);
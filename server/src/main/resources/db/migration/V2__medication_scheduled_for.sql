@@ -0,0 +1,4 @@
+-- The dose's originally scheduled time. Snoozing moves next_due_time but not this,
+-- so a later take, skip or snooze is measured against the schedule rather than the snooze.
+alter table base_medication add column scheduled_for timestamp(6);
+update base_medication set scheduled_for = next_due_time;
@@ -0,0 +1,112 @@
+package org.ooad.server;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.ooad.server.model.AdherenceDaily;
+import org.ooad.server.model.DoseEvent;
+import org.ooad.server.repository.AdherenceDailyRepository;
+import org.ooad.server.repository.DoseEventRepository;
+import org.ooad.server.service.AdherenceRollup;
+import org.ooad.server.service.DoseEventLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DoseEventLog when a batch fails to store.
+ * Not @Transactional: each attempt must commit or roll back for real.
+ */
+@SpringBootTest
+public class DoseEventLogTest {
+
+    private static final int EVENTS = 3;
+    // Clear of anything other tests in the shared context leave behind
+    private static final long USER_ID = 1_000_000L;
+    private static final long FIRST_MEDICATION_ID = 1_000_000L;
+
+    @Autowired
+    private DoseEventRepository doseEventRepository;
+
+    @Autowired
+    private AdherenceDailyRepository adherenceDailyRepository;
+
+    @Autowired
+    private AdherenceRollup adherenceRollup;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanup() {
+        doseEventRepository.deleteAll();
+        adherenceDailyRepository.deleteAll();
+    }
+
+    @Test
+    void testFailedBatchIsRetriedWithoutTheRolledBackIds() throws Exception {
+        // Inserts the first batch, assigning its ids, then fails so the transaction rolls back
+        AtomicInteger saveAllCalls = new AtomicInteger();
+        List<List<Long>> idsHandedToSaveAll = new ArrayList<>();
+        DoseEventRepository failingOnce = (DoseEventRepository) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[] {DoseEventRepository.class},
+                (proxy, method, args) -> {
+                    boolean saveAll = method.getName().equals("saveAll");
+                    if (saveAll) {
+                        List<Long> ids = new ArrayList<>();
+                        for (Object event : (Iterable<?>) args[0]) {
+                            ids.add(((DoseEvent) event).getId());
+                        }
+                        idsHandedToSaveAll.add(ids);
+                    }
+                    Object result;
+                    try {
+                        result = method.invoke(doseEventRepository, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    if (saveAll && saveAllCalls.incrementAndGet() == 1) {
+                        throw new DataAccessResourceFailureException("simulated outage");
+                    }
+                    return result;
+                });
+        DoseEventLog log = new DoseEventLog(failingOnce, adherenceRollup, transactionManager,
+                100, 100, 60_000, 3, 1, new SimpleMeterRegistry());
+        try {
+            LocalDateTime due = LocalDateTime.now().withNano(0);
+            for (long medicationId = FIRST_MEDICATION_ID; medicationId < FIRST_MEDICATION_ID + EVENTS; medicationId++) {
+                log.record(medicationId, USER_ID, DoseEvent.Type.TAKEN, due);
+            }
+            log.flush();
+        } finally {
+            log.shutdown();
+        }
+
+        // The background writer may take the first event before the rest are queued, so there can be one
+        // batch more; either way the failed one was retried, with new rows rather than the ones it had given ids to
+        assertTrue(saveAllCalls.get() >= 2);
+        assertTrue(idsHandedToSaveAll.stream().flatMap(List::stream).allMatch(id -> id == null));
+
+        LocalDate today = LocalDate.now();
+        List<DoseEvent> stored = doseEventRepository.findByUserIdAndEventDateBetween(USER_ID,
+                today.minusDays(1), today.plusDays(1), PageRequest.of(0, 10)).getContent();
+        assertEquals(EVENTS, stored.size());
+        assertEquals(EVENTS, stored.stream().map(DoseEvent::getMedicationId).distinct().count());
+        List<AdherenceDaily> days = adherenceDailyRepository.findAll().stream()
+                .filter(day -> Long.valueOf(USER_ID).equals(day.getUserId())).toList();
+        assertEquals(EVENTS, days.size());
+        assertTrue(days.stream().allMatch(day -> day.getTaken() == 1 && day.getOnTime() == 1));
+    }
+}
@@ -1,29 +1,89 @@
 package org.ooad.server;
 
+import com.jayway.jsonpath.JsonPath;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.ooad.server.command.SkipCommand;
+import org.ooad.server.controller.RequestBulkheadFilter;
 import org.ooad.server.command.SnoozeCommand;
 import org.ooad.server.command.TakeCommand;
 import org.ooad.server.factory.MedicationFactory;
 import org.ooad.server.model.BaseMedication;
+import org.ooad.server.model.DoseEvent;
 import org.ooad.server.model.Medication;
+import org.ooad.server.model.MedicationAttribute;
 import org.ooad.server.model.User;
+import org.ooad.server.observer.DoseEscalation;
+import org.ooad.server.observer.DueTimeIndex;
+import org.ooad.server.observer.ReminderObserver;
+import org.ooad.server.observer.ReminderSystem;
+import org.ooad.server.repository.DoseEventRepository;
 import org.ooad.server.repository.MedicationRepository;
 import org.ooad.server.repository.UserRepository;
+import org.ooad.server.service.DoseEventLog;
+import org.ooad.server.service.MedicationListCache;
 import org.ooad.server.service.MedicationService;
+import org.ooad.server.service.PasswordHashingExecutor;
+import org.ooad.server.service.UserLookupCache;
 import org.ooad.server.service.UserService;
 import org.ooad.server.strategy.InteractionStrategy;
+import org.ooad.server.strategy.Regimen;
+import org.ooad.server.strategy.StandardInteractionStrategy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@SpringBootTest
+// The tests drive reminder ticks themselves; a scheduled tick cannot see their uncommitted rows
+// and would drop them from the reminder index
+@SpringBootTest(properties = "medtrack.reminders.tick-initial-delay-ms=3600000")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
 @Transactional
 public class MedTrackIntegrationTest {
 
@@ -45,6 +105,46 @@ public class MedTrackIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private DueTimeIndex dueTimeIndex;
+
+    @Autowired
+    private ReminderSystem reminderSystem;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserLookupCache userLookupCache;
+
+    @Autowired
+    private MedicationListCache medicationListCache;
+
+    @Autowired
+    private DoseEventLog doseEventLog;
+
+    @Autowired
+    private DoseEventRepository doseEventRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private static RequestPostProcessor tokenFor(String username) {
+        return jwt().jwt(token -> token.subject(username));
+    }
+
+    private static RequestPostProcessor tokenFor(String username, String... roles) {
+        return jwt().jwt(token -> token.subject(username))
+                .authorities(Arrays.stream(roles).map(role -> new SimpleGrantedAuthority("ROLE_" + role)).toArray(GrantedAuthority[]::new));
+    }
+
+    private static RequestPostProcessor fromAddress(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+
     @BeforeEach
     void setup() {
         medicationRepository.deleteAll();
@@ -57,6 +157,30 @@ public class MedTrackIntegrationTest {
         assertEquals("Standard", med1.getAttributes());
         Medication med2 = medicationFactory.createMedication("Antibiotic", "Capsule", true);
         assertTrue(med2.getAttributes().contains("Food Sensitive"));
+        Medication med3 = medicationFactory.createMedication("Insulin", "Injection",
+                EnumSet.of(MedicationAttribute.CONTROLLED, MedicationAttribute.REFRIGERATED));
+        assertTrue(med3.has(MedicationAttribute.REFRIGERATED));
+        assertFalse(med3.has(MedicationAttribute.FOOD_SENSITIVE));
+        assertEquals("Controlled Substance, Keep Refrigerated", med3.getAttributes());
+        // Descriptions are precomputed, not rebuilt per call
+        assertSame(med3.getAttributes(), med3.getAttributes());
+    }
+
+    @Test
+    void testAttributeFlagsArePersistedAndExposed() throws Exception {
+        userService.registerNewUser("flagged", "password");
+        mockMvc.perform(post("/api/medications").with(tokenFor("flagged"))
+                        .param("name", "Insulin").param("dosageForm", "Injection")
+                        .param("refrigerated", "true").param("foodSensitive", "true")
+                        .param("username", "flagged"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.attributeFlags").value(
+                        MedicationAttribute.FOOD_SENSITIVE.bit() | MedicationAttribute.REFRIGERATED.bit()))
+                .andExpect(jsonPath("$.attributes").value("Food Sensitive (Take with food), Keep Refrigerated"));
+
+        BaseMedication stored = medicationService.getUserMedications("flagged").get(0);
+        assertEquals(EnumSet.of(MedicationAttribute.FOOD_SENSITIVE, MedicationAttribute.REFRIGERATED),
+                MedicationAttribute.fromFlags(stored.getAttributeFlags()));
     }
 
     @Test
@@ -131,6 +255,161 @@ public class MedTrackIntegrationTest {
         assertFalse(userService.validateUser(username, "wrongpassword"));
     }
 
+    @Test
+    void testLoginIssuesTokenRequiredForMedicationEndpoints() throws Exception {
+        userService.registerNewUser("tokenuser", "password");
+        userService.registerNewUser("otheruser", "password");
+
+        MvcResult pending = mockMvc.perform(post("/api/auth/login")
+                        .param("username", "tokenuser").param("password", "password"))
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tokenType").value("Bearer"))
+                .andReturn().getResponse().getContentAsString();
+        String token = JsonPath.read(body, "$.accessToken");
+
+        mockMvc.perform(get("/api/medications").param("username", "tokenuser")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/medications").param("username", "tokenuser"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/medications").param("username", "tokenuser")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token + "x"))
+                .andExpect(status().isUnauthorized());
+        // A token only opens its own user's data
+        mockMvc.perform(get("/api/medications").param("username", "otheruser")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isForbidden());
+
+        // The roles claim is USER, which does not open the clinician dashboard
+        mockMvc.perform(post("/api/medications/due").contentType(MediaType.APPLICATION_JSON).content("{\"userIds\":[1]}")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isForbidden());
+
+        MvcResult rejected = mockMvc.perform(post("/api/auth/login")
+                        .param("username", "tokenuser").param("password", "wrong"))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(rejected)).andExpect(status().isUnauthorized());
+
+        // An unknown username is hashed too, so it takes as long as a wrong password
+        long hashesBefore = meterRegistry.get("medtrack.auth.hash").timer().count();
+        MvcResult unknown = mockMvc.perform(post("/api/auth/login")
+                        .param("username", "no-such-user").param("password", "wrong"))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(unknown)).andExpect(status().isUnauthorized());
+        assertEquals(hashesBefore + 1, meterRegistry.get("medtrack.auth.hash").timer().count());
+    }
+
+    @Test
+    void testMedicationsCanOnlyBeChangedByTheirOwner() throws Exception {
+        userService.registerNewUser("owner", "password");
+        userService.registerNewUser("intruder", "password");
+        BaseMedication med = medicationService.addMedication("Owned Med", "Pill", false, 2, "owner", null);
+        String path = "/api/medications/" + med.getId();
+        LocalDateTime due = medicationRepository.findById(med.getId()).orElseThrow().getNextDueTime();
+
+        for (String action : List.of("/take", "/snooze", "/skip")) {
+            mockMvc.perform(post(path + action).with(tokenFor("intruder"))).andExpect(status().isNotFound());
+        }
+        mockMvc.perform(put(path).with(tokenFor("intruder")).param("name", "Renamed").param("dosageForm", "Pill"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete(path).with(tokenFor("intruder"))).andExpect(status().isNotFound());
+
+        BaseMedication untouched = medicationRepository.findById(med.getId()).orElseThrow();
+        assertEquals("Owned Med", untouched.getName());
+        assertEquals(due, untouched.getNextDueTime());
+
+        mockMvc.perform(post(path + "/take").with(tokenFor("owner"))).andExpect(status().isOk());
+        mockMvc.perform(post("/api/medications/999999/take").with(tokenFor("owner"))).andExpect(status().isNotFound());
+        mockMvc.perform(delete(path).with(tokenFor("owner"))).andExpect(status().isNoContent());
+    }
+
+    @Test
+    void testContactDetailsNeedATokenAndChangeOnlyTheCallersAccount() throws Exception {
+        userService.registerNewUser("contactowner", "password");
+        userService.registerNewUser("someoneelse", "password");
+
+        mockMvc.perform(put("/api/auth/contact").param("email", "x@example.test"))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(put("/api/auth/contact").with(tokenFor("contactowner"))
+                        .param("username", "someoneelse").param("email", "owner@example.test"))
+                .andExpect(status().isOk());
+        assertEquals("owner@example.test", userRepository.findByUsername("contactowner").orElseThrow().getEmail());
+        assertNull(userRepository.findByUsername("someoneelse").orElseThrow().getEmail());
+    }
+
+    @Test
+    void testWebhookUrlsMustBePublicHttps() throws Exception {
+        userService.registerNewUser("hookowner", "password");
+        for (String refused : List.of("http://93.184.216.34/hook", "https://127.0.0.1/hook", "https://10.0.0.5/hook",
+                "https://169.254.169.254/latest/meta-data", "https://user:pw@93.184.216.34/hook", "not a url")) {
+            mockMvc.perform(put("/api/auth/contact").with(tokenFor("hookowner")).param("webhookUrl", refused))
+                    .andExpect(status().isBadRequest());
+        }
+        mockMvc.perform(put("/api/auth/contact").with(tokenFor("hookowner")).param("email", "no-at-sign"))
+                .andExpect(status().isBadRequest());
+        assertNull(userRepository.findByUsername("hookowner").orElseThrow().getWebhookUrl());
+
+        mockMvc.perform(put("/api/auth/contact").with(tokenFor("hookowner")).param("webhookUrl", "https://93.184.216.34/hook"))
+                .andExpect(status().isOk());
+        assertEquals("https://93.184.216.34/hook", userRepository.findByUsername("hookowner").orElseThrow().getWebhookUrl());
+    }
+
+    @Test
+    void testLoginAttemptsAreRateLimitedPerUser() throws Exception {
+        userService.registerNewUser("guessed", "password");
+        for (int i = 0; i < 5; i++) {
+            MvcResult attempt = mockMvc.perform(post("/api/auth/login").with(fromAddress("10.0.0.9"))
+                            .param("username", "guessed").param("password", "wrong" + i))
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(attempt)).andExpect(status().isUnauthorized());
+        }
+        // Bucket empty: refused before any hashing, even with the right password
+        MvcResult limited = mockMvc.perform(post("/api/auth/login").with(fromAddress("10.0.0.9"))
+                        .param("username", "guessed").param("password", "password"))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(limited))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+
+        // Another username from another address is unaffected
+        userService.registerNewUser("bystander", "password");
+        MvcResult other = mockMvc.perform(post("/api/auth/login").with(fromAddress("10.0.0.10"))
+                        .param("username", "bystander").param("password", "password"))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(other)).andExpect(status().isOk());
+    }
+
+    @Test
+    void testPasswordHashingRejectsWhenSaturatedOrQueuedTooLong() throws Exception {
+        PasswordHashingExecutor hashing = new PasswordHashingExecutor(1, 1, Duration.ofMillis(50), new SimpleMeterRegistry());
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+            CompletableFuture<Boolean> busy = hashing.submit(() -> {
+                try {
+                    return release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            CompletableFuture<String> queued = hashing.submit(() -> "hashed");
+            CompletableFuture<String> overflow = hashing.submit(() -> "hashed");
+
+            ExecutionException full = assertThrows(ExecutionException.class, () -> overflow.get(1, TimeUnit.SECONDS));
+            assertInstanceOf(RejectedExecutionException.class, full.getCause());
+
+            Thread.sleep(100);
+            release.countDown();
+            assertTrue(busy.get(1, TimeUnit.SECONDS));
+            ExecutionException stale = assertThrows(ExecutionException.class, () -> queued.get(1, TimeUnit.SECONDS));
+            assertInstanceOf(RejectedExecutionException.class, stale.getCause());
+        } finally {
+            hashing.shutdown();
+        }
+    }
+
     @Test
     void testCustomStartTime() {
         userService.registerNewUser("testuser", "password");
@@ -139,4 +418,610 @@ public class MedTrackIntegrationTest {
 
         assertEquals(futureTime, med.getNextDueTime());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testDueTimeIndexFollowsMedicationChanges() {
+        userService.registerNewUser("testuser", "password");
+        BaseMedication med = medicationService.addMedication("Indexed Med", "Pill", false, 1, "testuser",
+                LocalDateTime.now().minusMinutes(1));
+        Long id = med.getId();
+
+        assertTrue(dueTimeIndex.dueBefore(LocalDateTime.now()).stream()
+                .anyMatch(dose -> dose.medicationId().equals(id)));
+
+        medicationService.takeMedication(id);
+        assertTrue(dueTimeIndex.dueBefore(LocalDateTime.now()).stream()
+                .noneMatch(dose -> dose.medicationId().equals(id)));
+
+        medicationService.deleteMedication(id);
+        assertNull(dueTimeIndex.get(id));
+    }
+
+    @Test
+    void testDueRangeQuery() {
+        userService.registerNewUser("testuser", "password");
+        BaseMedication overdue = medicationService.addMedication("Overdue Med", "Pill", false, 1, "testuser",
+                LocalDateTime.now().minusHours(1));
+        medicationService.addMedication("Later Med", "Pill", false, 1, "testuser", LocalDateTime.now().plusHours(1));
+
+        List<BaseMedication> due = medicationRepository
+                .findByNextDueTimeBefore(LocalDateTime.now(), PageRequest.of(0, 10))
+                .getContent();
+        assertEquals(1, due.size());
+        assertEquals(overdue.getId(), due.get(0).getId());
+    }
+
+    @Test
+    void testReminderDispatchRunsOffTheCallerThread() throws InterruptedException {
+        CountDownLatch delivered = new CountDownLatch(1);
+        Thread caller = Thread.currentThread();
+        ReminderObserver observer = medication -> {
+            if (Thread.currentThread() != caller) {
+                delivered.countDown();
+            }
+        };
+        reminderSystem.attach(observer);
+        try {
+            BaseMedication med = new BaseMedication("Dispatch Med", "Pill", 1);
+            med.setUserId(42L);
+            reminderSystem.notifyObservers(med);
+            assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        } finally {
+            reminderSystem.detach(observer);
+        }
+    }
+
+    @Test
+    void testConditionalGetOfMedicationList() throws Exception {
+        userService.registerNewUser("testuser", "password");
+        BaseMedication med = medicationService.addMedication("ETag Med", "Pill", false, 1, "testuser", null);
+
+        String eTag = mockMvc.perform(get("/api/medications").with(tokenFor("testuser")).param("username", "testuser"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+
+        mockMvc.perform(get("/api/medications").with(tokenFor("testuser")).param("username", "testuser")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        medicationService.takeMedication(med.getId());
+        mockMvc.perform(get("/api/medications").with(tokenFor("testuser")).param("username", "testuser")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testUsernameLookupsAreCached() {
+        userService.registerNewUser("cacheuser", "password");
+        medicationService.getUserMedications("cacheuser");
+        long hitsBefore = userLookupCache.stats().hitCount();
+
+        medicationService.getUserMedications("cacheuser");
+        assertTrue(userService.validateUser("cacheuser", "password"));
+
+        assertEquals(hitsBefore + 2, userLookupCache.stats().hitCount());
+    }
+
+    @Test
+    void testMedicationListCacheIsInvalidatedOnWrites() {
+        userService.registerNewUser("testuser", "password");
+        BaseMedication first = medicationService.addMedication("First", "Pill", false, 1, "testuser", null);
+        assertEquals(1, medicationService.getUserMedications("testuser").size());
+
+        long hitsBefore = medicationListCache.stats().hitCount();
+        assertEquals(1, medicationService.getUserMedications("testuser").size());
+        assertEquals(hitsBefore + 1, medicationListCache.stats().hitCount());
+
+        medicationService.addMedication("Second", "Pill", false, 1, "testuser", null);
+        assertEquals(2, medicationService.getUserMedications("testuser").size());
+
+        medicationService.deleteMedication(first.getId());
+        assertEquals(1, medicationService.getUserMedications("testuser").size());
+    }
+
+    @Test
+    void testRuleTableAgreesWithStandardStrategy() {
+        InteractionStrategy standard = new StandardInteractionStrategy();
+        List<Medication> existingMeds = List.of(
+                new BaseMedication("Warfarin 5mg", "Pill", 1),
+                medicationFactory.createMedication("Iron", "Tablet", true));
+
+        for (String name : List.of("Baby ASPIRIN", "Ciprofloxacin", "Vitamin D", "warfarin")) {
+            Medication newMed = new BaseMedication(name, "Tablet", 1);
+            assertEquals(standard.checkInteraction(newMed, existingMeds),
+                    interactionStrategy.checkInteraction(newMed, existingMeds), name);
+        }
+    }
+
+    @Test
+    void testRegimenTracksAddedAndRemovedMedications() {
+        BaseMedication warfarin = new BaseMedication("Warfarin", "Pill", 1);
+        warfarin.setId(1L);
+        BaseMedication iron = (BaseMedication) medicationFactory.createMedication("Iron", "Tablet", false);
+        iron.setId(2L);
+
+        Regimen regimen = interactionStrategy.newRegimen();
+        regimen.add(warfarin);
+        regimen.add(iron);
+
+        Medication aspirin = new BaseMedication("Aspirin", "Tablet", 1);
+        assertTrue(regimen.check(aspirin).contains("CRITICAL INTERACTION"));
+        assertNull(regimen.check(new BaseMedication("Vitamin D", "Tablet", 1)));
+
+        regimen.remove(warfarin.getId());
+        assertNull(regimen.check(aspirin));
+    }
+
+    @Test
+    void testBulkImportGroupsByUserAndReportsProblems() throws Exception {
+        userService.registerNewUser("alice", "password");
+        userService.registerNewUser("bob", "password");
+        String json = """
+                [
+                  {"username": "alice", "name": "Warfarin", "dosageForm": "Pill"},
+                  {"username": "bob", "name": "Vitamin D", "dosageForm": "Capsule", "dosagesPerDay": 2},
+                  {"username": "alice", "name": "Aspirin", "dosageForm": "Tablet", "foodSensitive": true},
+                  {"username": "nobody", "name": "Iron", "dosageForm": "Tablet"}
+                ]
+                """;
+
+        mockMvc.perform(post("/api/medications/bulk").with(tokenFor("admin", "ADMIN")).contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(3))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.interactionWarnings").value(1));
+
+        assertEquals(2, medicationService.getUserMedications("alice").size());
+        assertEquals(2, medicationService.getUserMedications("bob").get(0).getDosagesPerDay());
+
+        // Without the admin role rows go to the caller's own account, and rows for anyone else are refused
+        String own = """
+                [
+                  {"name": "Zinc", "dosageForm": "Tablet"},
+                  {"username": "alice", "name": "Iron", "dosageForm": "Tablet"}
+                ]
+                """;
+        mockMvc.perform(post("/api/medications/bulk").with(tokenFor("bob")).contentType(MediaType.APPLICATION_JSON).content(own))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.rejected").value(1));
+        assertEquals(2, medicationService.getUserMedications("bob").size());
+        assertEquals(2, medicationService.getUserMedications("alice").size());
+    }
+
+    @Test
+    void testBulkImportFromCsv() throws Exception {
+        userService.registerNewUser("carol", "password");
+        String csv = """
+                username,name,dosageForm,foodSensitive,dosagesPerDay,startTime
+                carol,"Amoxicillin, 500mg",Capsule,true,3,2030-01-01T08:00:00
+                carol,Metformin,Tablet,,,
+                carol,Broken,Tablet,false,not-a-number,
+                """;
+
+        mockMvc.perform(post("/api/medications/bulk").with(tokenFor("carol")).contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.rejected").value(1));
+
+        List<BaseMedication> meds = medicationService.getUserMedications("carol");
+        assertEquals(2, meds.size());
+        assertTrue(meds.stream().anyMatch(m -> m.getName().equals("Amoxicillin, 500mg")
+                && m.getAttributes().contains("Food Sensitive")
+                && m.getNextDueTime().equals(LocalDateTime.of(2030, 1, 1, 8, 0))));
+    }
+
+    @Test
+    void testDoseActionsAreRecordedInTheEventLog() {
+        User user = userService.registerNewUser("historyuser", "password");
+        LocalDateTime due = LocalDateTime.now().plusHours(1).withNano(0);
+        BaseMedication med = medicationService.addMedication("Lisinopril", "Tablet", false, 2, "historyuser", due);
+        Long id = med.getId();
+
+        new TakeCommand(medicationService, id).execute();
+        LocalDateTime afterTake = medicationRepository.findById(id).orElseThrow().getNextDueTime();
+        new SkipCommand(medicationService, id).execute();
+        new SnoozeCommand(medicationService, id).execute();
+        doseEventLog.flush();
+
+        LocalDate today = LocalDate.now();
+        List<DoseEvent> events = doseEventRepository.findByUserIdAndEventDateBetween(
+                user.getId(), today.minusDays(1), today.plusDays(1), PageRequest.of(0, 10)).getContent();
+        assertEquals(3, events.size());
+        assertEquals(List.of(DoseEvent.Type.TAKEN, DoseEvent.Type.SNOOZED, DoseEvent.Type.SKIPPED),
+                events.stream().map(DoseEvent::getType).sorted().toList());
+        DoseEvent taken = events.stream().filter(e -> e.getType() == DoseEvent.Type.TAKEN).findFirst().orElseThrow();
+        assertEquals(due, taken.getScheduledFor());
+        DoseEvent skipped = events.stream().filter(e -> e.getType() == DoseEvent.Type.SKIPPED).findFirst().orElseThrow();
+        // The stored due time may be rounded to the column's precision
+        assertTrue(Duration.between(afterTake, skipped.getScheduledFor()).abs().toMillis() < 1);
+    }
+
+    @Test
+    void testDoseEventsRecordTheDueTimeTheyReplaced() {
+        User user = userService.registerNewUser("staleindex", "password");
+        LocalDateTime indexed = LocalDateTime.now().plusHours(1).withNano(0);
+        BaseMedication med = medicationService.addMedication("Metformin", "Tablet", false, 2, "staleindex", indexed);
+        // The row moves on behind the reminder index's back
+        LocalDateTime actual = indexed.plusHours(3);
+        assertEquals(1, medicationRepository.updateNextDueTime(med.getId(), 2, indexed, actual));
+        assertEquals(indexed, dueTimeIndex.get(med.getId()).dueTime());
+
+        // The guarded update misses the stale entry; take re-reads the row and records the due time it replaced
+        assertEquals(0, medicationRepository.updateNextDueTime(med.getId(), 2, indexed, indexed.plusHours(12)));
+        medicationService.takeMedication(med.getId());
+        LocalDateTime afterTake = medicationRepository.findById(med.getId()).orElseThrow().getNextDueTime();
+        assertTrue(afterTake.isAfter(LocalDateTime.now().plusHours(11)));
+        doseEventLog.flush();
+
+        LocalDate today = LocalDate.now();
+        List<DoseEvent> events = doseEventRepository.findByUserIdAndEventDateBetween(
+                user.getId(), today.minusDays(1), today.plusDays(1), PageRequest.of(0, 10)).getContent();
+        assertEquals(1, events.size());
+        assertEquals(actual, events.get(0).getScheduledFor());
+    }
+
+    @Test
+    void testSnoozedDoseIsMeasuredFromItsOriginalDueTime() throws Exception {
+        User user = userService.registerNewUser("snoozer", "password");
+        LocalDateTime due = LocalDateTime.now().minusMinutes(76).withNano(0);
+        BaseMedication snoozed = medicationService.addMedication("Metformin", "Tablet", false, 1, "snoozer", due);
+        BaseMedication early = medicationService.addMedication("Lisinopril", "Tablet", false, 1, "snoozer",
+                LocalDateTime.now().plusHours(23));
+
+        medicationService.snoozeMedication(snoozed.getId());
+        BaseMedication afterSnooze = medicationRepository.findById(snoozed.getId()).orElseThrow();
+        assertTrue(afterSnooze.getNextDueTime().isAfter(LocalDateTime.now().plusMinutes(14)));
+        assertEquals(due, afterSnooze.getScheduledFor());
+        medicationService.takeMedication(snoozed.getId());
+        // Taken 23 hours early: no delay, but not on time either
+        medicationService.takeMedication(early.getId());
+        doseEventLog.flush();
+
+        LocalDate today = LocalDate.now();
+        List<DoseEvent> events = doseEventRepository.findByMedicationIdAndEventDateBetween(snoozed.getId(),
+                today.minusDays(1), today.plusDays(1), PageRequest.of(0, 10)).getContent();
+        assertEquals(2, events.size());
+        assertTrue(events.stream().allMatch(e -> e.getScheduledFor().equals(due)));
+
+        String from = today.minusDays(1).toString();
+        String to = today.plusDays(2).toString();
+        mockMvc.perform(get("/api/medications/adherence").with(tokenFor("snoozer"))
+                        .param("username", "snoozer").param("from", from).param("to", to))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("Metformin"))
+                .andExpect(jsonPath("$[0].snoozed").value(1))
+                .andExpect(jsonPath("$[0].taken").value(1))
+                .andExpect(jsonPath("$[0].onTime").value(0))
+                .andExpect(jsonPath("$[0].averageDelayMinutes").value(closeTo(76.0, 1.0)))
+                .andExpect(jsonPath("$[1].name").value("Lisinopril"))
+                .andExpect(jsonPath("$[1].taken").value(1))
+                .andExpect(jsonPath("$[1].onTime").value(0))
+                .andExpect(jsonPath("$[1].averageDelayMinutes").value(closeTo(0.0, 0.1)));
+    }
+
+    @Test
+    void testAdherenceReportFromDailyRollups() throws Exception {
+        User user = userService.registerNewUser("adherent", "password");
+        userService.registerNewUser("cohortpeer", "password");
+        LocalDateTime now = LocalDateTime.now();
+        BaseMedication late = medicationService.addMedication("Atorvastatin", "Tablet", false, 1, "adherent", now.minusHours(2));
+        BaseMedication early = medicationService.addMedication("Levothyroxine", "Tablet", false, 1, "adherent", now.plusMinutes(10));
+        BaseMedication peer = medicationService.addMedication("Atorvastatin", "Tablet", false, 1, "cohortpeer", now.plusMinutes(5));
+
+        medicationService.takeMedication(late.getId());
+        medicationService.takeMedication(early.getId());
+        medicationService.skipMedication(early.getId());
+        medicationService.takeMedication(peer.getId());
+        doseEventLog.record(late.getId(), user.getId(), DoseEvent.Type.MISSED, now.minusDays(1));
+        doseEventLog.flush();
+
+        String from = LocalDate.now().minusDays(2).toString();
+        String to = LocalDate.now().plusDays(2).toString();
+        mockMvc.perform(get("/api/medications/adherence").with(tokenFor("adherent"))
+                        .param("username", "adherent").param("from", from).param("to", to))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("Atorvastatin"))
+                .andExpect(jsonPath("$[0].taken").value(1))
+                .andExpect(jsonPath("$[0].onTime").value(0))
+                .andExpect(jsonPath("$[0].missed").value(1))
+                .andExpect(jsonPath("$[0].averageDelayMinutes").value(closeTo(120.0, 1.0)))
+                .andExpect(jsonPath("$[1].name").value("Levothyroxine"))
+                .andExpect(jsonPath("$[1].onTime").value(1))
+                .andExpect(jsonPath("$[1].skipped").value(1))
+                .andExpect(jsonPath("$[1].onTimeRate").value(0.5));
+
+        // Patients and clinicians cannot read the cohort figures
+        mockMvc.perform(get("/api/medications/adherence/cohort").with(tokenFor("adherent"))
+                        .param("usernames", "adherent", "cohortpeer").param("from", from).param("to", to))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/medications/adherence/cohort").with(tokenFor("nurse", "CLINICIAN"))
+                        .param("from", from).param("to", to))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/api/medications/adherence/cohort").with(tokenFor("admin", "ADMIN"))
+                        .param("usernames", "adherent", "cohortpeer").param("from", from).param("to", to))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Atorvastatin"))
+                .andExpect(jsonPath("$[0].patients").value(2))
+                .andExpect(jsonPath("$[0].taken").value(2));
+
+        mockMvc.perform(get("/api/medications/adherence").with(tokenFor("adherent"))
+                        .param("username", "adherent").param("from", to).param("to", from))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testEscalationAlertsWithBackoffThenMarksMissed() {
+        DoseEscalation escalation = new DoseEscalation(Duration.ofMinutes(5), Duration.ofMinutes(15),
+                Duration.ofHours(1), new SimpleMeterRegistry());
+        LocalDateTime due = LocalDateTime.of(2030, 1, 1, 8, 0);
+
+        assertEquals(DoseEscalation.Step.ALERT, escalation.next(1L, due, due));
+        assertEquals(DoseEscalation.Step.NONE, escalation.next(1L, due, due.plusMinutes(4)));
+        assertEquals(DoseEscalation.Step.ALERT, escalation.next(1L, due, due.plusMinutes(5)));
+        // Backoff doubled to 10 minutes
+        assertEquals(DoseEscalation.Step.NONE, escalation.next(1L, due, due.plusMinutes(14)));
+        assertEquals(DoseEscalation.Step.ALERT, escalation.next(1L, due, due.plusMinutes(15)));
+        assertEquals(DoseEscalation.Step.MISSED, escalation.next(1L, due, due.plusHours(1)));
+        // The notice could not be dispatched, so the next tick owes it again
+        escalation.missedNotDelivered(1L);
+        assertEquals(DoseEscalation.Step.MISSED, escalation.next(1L, due, due.plusHours(2)));
+        assertEquals(DoseEscalation.Step.NONE, escalation.next(1L, due, due.plusHours(3)));
+
+        // A new due time (dose taken or snoozed) starts over
+        assertEquals(DoseEscalation.Step.ALERT, escalation.next(1L, due.plusHours(12), due.plusHours(12)));
+
+        // Doses that stop being due are forgotten at the end of the tick
+        escalation.beginTick();
+        escalation.next(2L, due, due.plusMinutes(1));
+        escalation.endTick();
+        assertEquals(1, escalation.size());
+    }
+
+    @Test
+    void testOverdueDosesAreNotifiedOncePerTransition() throws InterruptedException {
+        userService.registerNewUser("escalated", "password");
+        LocalDateTime now = LocalDateTime.now();
+        BaseMedication overdue = medicationService.addMedication("Long Overdue", "Pill", false, 2, "escalated", now.minusHours(3));
+        BaseMedication due = medicationService.addMedication("Just Due", "Pill", false, 2, "escalated", now.minusMinutes(1));
+
+        Map<String, Integer> calls = new ConcurrentHashMap<>();
+        CountDownLatch delivered = new CountDownLatch(2);
+        ReminderObserver observer = new ReminderObserver() {
+            @Override
+            public void update(Medication medication) {
+                count("update:" + medication.getId());
+            }
+
+            @Override
+            public void missed(Medication medication) {
+                count("missed:" + medication.getId());
+            }
+
+            private void count(String key) {
+                if (calls.merge(key, 1, Integer::sum) == 1) {
+                    delivered.countDown();
+                }
+            }
+        };
+        reminderSystem.attach(observer);
+        try {
+            reminderSystem.checkForDueReminders();
+            reminderSystem.checkForDueReminders();
+            reminderSystem.checkForDueReminders();
+            assertTrue(delivered.await(5, TimeUnit.SECONDS));
+            Thread.sleep(200);
+        } finally {
+            reminderSystem.detach(observer);
+        }
+        assertEquals(1, calls.get("missed:" + overdue.getId()));
+        assertNull(calls.get("update:" + overdue.getId()));
+        assertEquals(1, calls.get("update:" + due.getId()));
+
+        // Marking it missed records the event and moves the schedule past now, on the same 12-hour rhythm
+        LocalDateTime missedDue = medicationRepository.findById(overdue.getId()).orElseThrow().getNextDueTime();
+        medicationService.recordMissedDose(medicationRepository.findById(overdue.getId()).orElseThrow());
+        BaseMedication after = medicationRepository.findById(overdue.getId()).orElseThrow();
+        assertEquals(missedDue.plusHours(12), after.getNextDueTime());
+        doseEventLog.flush();
+        assertTrue(doseEventRepository.findByMedicationIdAndEventDateBetween(overdue.getId(),
+                        LocalDate.now().minusDays(1), LocalDate.now().plusDays(1), PageRequest.of(0, 10))
+                .stream().anyMatch(e -> e.getType() == DoseEvent.Type.MISSED));
+
+        // Every 6-hour slot that went by while overdue is recorded, not just the first
+        LocalDateTime longAgo = now.minusHours(25).withNano(0);
+        BaseMedication neglected = medicationService.addMedication("Neglected", "Pill", false, 4, "escalated", longAgo);
+        medicationService.recordMissedDose(medicationRepository.findById(neglected.getId()).orElseThrow());
+        assertEquals(longAgo.plusHours(30), medicationRepository.findById(neglected.getId()).orElseThrow().getNextDueTime());
+        doseEventLog.flush();
+        assertEquals(List.of(longAgo, longAgo.plusHours(6), longAgo.plusHours(12), longAgo.plusHours(18), longAgo.plusHours(24)),
+                doseEventRepository.findByMedicationIdAndEventDateBetween(neglected.getId(),
+                                LocalDate.now().minusDays(2), LocalDate.now().plusDays(1), PageRequest.of(0, 10))
+                        .stream().filter(e -> e.getType() == DoseEvent.Type.MISSED)
+                        .map(DoseEvent::getScheduledFor).sorted().toList());
+    }
+
+    @Test
+    void testMedicationChangesArePushedToTheEventStream() throws Exception {
+        userService.registerNewUser("streamer", "password");
+        MvcResult stream = mockMvc.perform(get("/api/medications/stream").with(tokenFor("streamer")).param("username", "streamer"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Sent by a stream sender thread after addMedication has returned
+        medicationService.addMedication("Streamed Dose", "Tablet", false, 1, "streamer", null);
+        MockHttpServletResponse response = stream.getResponse();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!response.getContentAsString().contains("Streamed Dose") && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(response.getContentAsString().contains("event:ADDED"));
+        assertTrue(response.getContentAsString().contains("Streamed Dose"));
+    }
+
+    @Test
+    void testPagedFilteredAndProjectedListing() throws Exception {
+        userService.registerNewUser("pager", "password");
+        LocalDateTime base = LocalDateTime.of(2031, 3, 1, 8, 0);
+        for (int i = 0; i < 5; i++) {
+            medicationService.addMedication("Med " + i, "Tablet", i % 2 == 0, 1, "pager", base.plusHours(i));
+        }
+        for (String name : List.of("Undated A", "Undated B")) {
+            BaseMedication undated = medicationService.addMedication(name, "Tablet", false, 1, "pager", base);
+            undated.setNextDueTime(null);
+            medicationRepository.save(undated);
+        }
+
+        // Walk the pages with the cursor: 2 + 2 + 2 + 1, in due-time order and then the undated ones by id
+        List<String> names = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            var request = get("/api/medications/page").with(tokenFor("pager")).param("username", "pager").param("limit", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            String body = mockMvc.perform(request).andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            names.addAll(JsonPath.read(body, "$.items[*].name"));
+            cursor = JsonPath.read(body, "$.nextCursor");
+            pages++;
+        } while (cursor != null);
+        assertEquals(4, pages);
+        assertEquals(List.of("Med 0", "Med 1", "Med 2", "Med 3", "Med 4", "Undated A", "Undated B"), names);
+
+        mockMvc.perform(get("/api/medications/page").with(tokenFor("pager")).param("username", "pager")
+                        .param("attributes", "FOOD_SENSITIVE")
+                        .param("dueBefore", base.plusHours(4).toString())
+                        .param("fields", "id,name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].name").value("Med 0"))
+                .andExpect(jsonPath("$.items[1].name").value("Med 2"))
+                .andExpect(jsonPath("$.items[0].dosageForm").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        mockMvc.perform(get("/api/medications/page").with(tokenFor("pager")).param("username", "pager").param("fields", "password"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/medications/page").with(tokenFor("pager")).param("username", "pager").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testClinicianDashboardListsDueDosesAcrossPatients() throws Exception {
+        User ann = userService.registerNewUser("ward-ann", "password");
+        User ben = userService.registerNewUser("ward-ben", "password");
+        userService.registerNewUser("elsewhere", "password");
+        LocalDateTime now = LocalDateTime.now();
+        medicationService.addMedication("Heparin", "Injection", false, 4, "ward-ben", now.plusMinutes(30));
+        medicationService.addMedication("Paracetamol", "Tablet", false, 4, "ward-ann", now.plusMinutes(5));
+        medicationService.addMedication("Later Dose", "Tablet", false, 1, "ward-ann", now.plusMinutes(90));
+        medicationService.addMedication("Overdue Dose", "Tablet", false, 1, "ward-ben", now.minusMinutes(20));
+        medicationService.addMedication("Not On Ward", "Tablet", false, 1, "elsewhere", now.plusMinutes(10));
+
+        String body = "{\"userIds\":[" + ann.getId() + "," + ben.getId() + "],\"withinMinutes\":60}";
+        // A patient's own token cannot read the ward
+        mockMvc.perform(post("/api/medications/due").with(tokenFor("ward-ann")).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(post("/api/medications/due").with(tokenFor("nurse", "CLINICIAN")).contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("Paracetamol"))
+                .andExpect(jsonPath("$[0].username").value("ward-ann"))
+                .andExpect(jsonPath("$[1].name").value("Heparin"))
+                .andExpect(jsonPath("$[1].overdue").value(false));
+
+        String withOverdue = "{\"userIds\":[" + ben.getId() + "],\"withinMinutes\":60,\"overdueMinutes\":60}";
+        mockMvc.perform(post("/api/medications/due").with(tokenFor("nurse", "CLINICIAN")).contentType(MediaType.APPLICATION_JSON).content(withOverdue))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Overdue Dose"))
+                .andExpect(jsonPath("$[0].overdue").value(true))
+                .andExpect(jsonPath("$[1].name").value("Heparin"));
+
+        mockMvc.perform(post("/api/medications/due").with(tokenFor("nurse", "CLINICIAN")).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userIds\":[1],\"withinMinutes\":100000}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testServicesSchedulerAndObserversAreInstrumented() throws Exception {
+        double addsBefore = addMedicationCalls();
+        userService.registerNewUser("metricsuser", "password");
+        medicationService.addMedication("Warfarin", "Pill", false, 1, "metricsuser", LocalDateTime.now().minusMinutes(5));
+        medicationService.addMedication("Aspirin", "Tablet", false, 1, "metricsuser", null);
+        CountDownLatch delivered = new CountDownLatch(1);
+        ReminderObserver observer = medication -> delivered.countDown();
+        reminderSystem.attach(observer);
+        try {
+            reminderSystem.checkForDueReminders();
+            assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        } finally {
+            reminderSystem.detach(observer);
+        }
+
+        assertEquals(addsBefore + 2, addMedicationCalls());
+        assertTrue(meterRegistry.get("medtrack.service").tags("method", "registerNewUser").timer().count() >= 1);
+        assertTrue(meterRegistry.get("medtrack.interactions.check").tag("result", "interaction").timer().count() >= 1);
+        assertTrue(meterRegistry.get("medtrack.reminders.tick").timer().count() >= 1);
+        assertTrue(meterRegistry.get("medtrack.reminders.tick.due").summary().max() >= 1);
+        assertTrue(meterRegistry.get("medtrack.reminders.observer.latency").tag("observer", "NotificationService")
+                .timer().count() >= 1);
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("medtrack_service_seconds_bucket")))
+                .andExpect(content().string(containsString("medtrack_interactions_check_seconds_count{result=\"interaction\"")))
+                .andExpect(content().string(containsString("medtrack_reminders_tick_seconds_count")));
+    }
+
+    @Test
+    void testBulkheadRejectsRequestsBeyondItsLimit() throws Exception {
+        RequestBulkheadFilter bulkhead = new RequestBulkheadFilter(1, Duration.ofMillis(50), new SimpleMeterRegistry());
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> held = CompletableFuture.runAsync(() -> {
+            try {
+                bulkhead.doFilter(new MockHttpServletRequest("GET", "/api/medications"), new MockHttpServletResponse(),
+                        (request, response) -> {
+                            entered.countDown();
+                            try {
+                                release.await(5, TimeUnit.SECONDS);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        bulkhead.doFilter(new MockHttpServletRequest("GET", "/api/medications"), rejected, new MockFilterChain());
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+
+        // The event stream and non-API paths are not limited
+        MockHttpServletResponse stream = new MockHttpServletResponse();
+        bulkhead.doFilter(new MockHttpServletRequest("GET", "/api/medications/stream"), stream, new MockFilterChain());
+        assertEquals(200, stream.getStatus());
+
+        release.countDown();
+        held.get(5, TimeUnit.SECONDS);
+        MockHttpServletResponse admitted = new MockHttpServletResponse();
+        bulkhead.doFilter(new MockHttpServletRequest("GET", "/api/medications"), admitted, new MockFilterChain());
+        assertEquals(200, admitted.getStatus());
+    }
+
+    private double addMedicationCalls() {
+        var timer = meterRegistry.find("medtrack.service")
+                .tags("class", MedicationService.class.getName(), "method", "addMedication", "exception", "none")
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
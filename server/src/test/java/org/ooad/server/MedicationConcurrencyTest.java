@@ -0,0 +1,106 @@
+package org.ooad.server;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.ooad.server.model.BaseMedication;
+import org.ooad.server.repository.MedicationRepository;
+import org.ooad.server.repository.UserRepository;
+import org.ooad.server.service.MedicationService;
+import org.ooad.server.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Many devices taking and snoozing the same dose at once.
+ * Not @Transactional: every thread must commit for real.
+ * Each operation's latency goes into a histogram; the percentiles are logged and p99 is held to
+ * medtrack.test.take-snooze-p99-ms (a system property, 5000 by default: about three times what a single-CPU machine sees).
+ */
+@SpringBootTest
+public class MedicationConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int OPERATIONS_PER_THREAD = 50;
+    private static final long P99_LIMIT_MS = Long.getLong("medtrack.test.take-snooze-p99-ms", 5000);
+
+    private static final Logger log = LoggerFactory.getLogger(MedicationConcurrencyTest.class);
+
+    @Autowired
+    private MedicationService medicationService;
+
+    @Autowired
+    private MedicationRepository medicationRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void cleanup() {
+        medicationRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void testConcurrentTakeAndSnoozeOfTheSameDose() throws Exception {
+        userService.registerNewUser("concurrent", "password");
+        BaseMedication med = medicationService.addMedication("Shared Dose", "Pill", false, 2, "concurrent", null);
+        Long id = med.getId();
+        long initialVersion = medicationRepository.findById(id).orElseThrow().getVersion();
+
+        // Microseconds, up to a minute
+        Histogram latency = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            boolean take = t % 2 == 0;
+            results.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    long began = System.nanoTime();
+                    if (take) {
+                        medicationService.takeMedication(id);
+                    } else {
+                        medicationService.snoozeMedication(id);
+                    }
+                    latency.recordValue(Math.max(1, (System.nanoTime() - began) / 1000));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get(60, TimeUnit.SECONDS); // rethrows any failure from a worker
+        }
+        pool.shutdown();
+
+        // Every operation was applied exactly once: no lost updates, no optimistic-lock failures
+        BaseMedication after = medicationRepository.findById(id).orElseThrow();
+        assertEquals(initialVersion + THREADS * OPERATIONS_PER_THREAD, after.getVersion());
+        assertTrue(after.getNextDueTime().isAfter(med.getNextDueTime()));
+
+        assertEquals(THREADS * OPERATIONS_PER_THREAD, latency.getTotalCount());
+        double p99 = latency.getValueAtPercentile(99) / 1000.0;
+        log.info("take/snooze latency over {} ops on {} threads: p50={} ms, p99={} ms, max={} ms",
+                latency.getTotalCount(), THREADS, latency.getValueAtPercentile(50) / 1000.0, p99,
+                latency.getMaxValue() / 1000.0);
+        assertTrue(p99 <= P99_LIMIT_MS, "p99 " + p99 + " ms exceeds " + P99_LIMIT_MS + " ms");
+    }
+}
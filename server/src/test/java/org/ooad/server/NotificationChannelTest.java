@@ -0,0 +1,151 @@
+package org.ooad.server;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.ooad.server.model.BaseMedication;
+import org.ooad.server.model.DeadLetterNotification;
+import org.ooad.server.observer.EmailNotificationChannel;
+import org.ooad.server.observer.WebhookNotificationChannel;
+import org.ooad.server.repository.DeadLetterNotificationRepository;
+import org.ooad.server.repository.MedicationRepository;
+import org.ooad.server.repository.UserRepository;
+import org.ooad.server.service.MedicationService;
+import org.ooad.server.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Email and webhook channels against local stand-ins: GreenMail for SMTP and the JDK HttpServer for webhooks.
+ * Not @Transactional: the channels read users from their own threads.
+ */
+@SpringBootTest(properties = {
+        "medtrack.notifications.email.enabled=true",
+        "medtrack.notifications.webhook.enabled=true",
+        "medtrack.notifications.webhook.allow-local=true",
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "medtrack.notifications.batch-window=1h",
+        "medtrack.notifications.retry-delay=20ms",
+        "medtrack.notifications.max-attempts=3"
+})
+public class NotificationChannelTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private EmailNotificationChannel emailChannel;
+
+    @Autowired
+    private WebhookNotificationChannel webhookChannel;
+
+    @Autowired
+    private MedicationService medicationService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MedicationRepository medicationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DeadLetterNotificationRepository deadLetters;
+
+    private HttpServer webhookServer;
+    private final List<String> webhookBodies = new CopyOnWriteArrayList<>();
+    private final AtomicInteger webhookCalls = new AtomicInteger();
+    private final CountDownLatch webhookDelivered = new CountDownLatch(1);
+
+    @BeforeEach
+    void startWebhookServer() throws IOException {
+        webhookServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        webhookServer.createContext("/hook", exchange -> {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            // The first call fails so the retry path is exercised
+            int status = webhookCalls.incrementAndGet() == 1 ? 503 : 204;
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+            if (status == 204) {
+                webhookBodies.add(body);
+                webhookDelivered.countDown();
+            }
+        });
+        webhookServer.start();
+    }
+
+    @AfterEach
+    void cleanup() {
+        webhookServer.stop(0);
+        medicationRepository.deleteAll();
+        userRepository.deleteAll();
+        deadLetters.deleteAll();
+    }
+
+    @Test
+    void testDueDosesAreCoalescedIntoOneMessagePerChannel() throws Exception {
+        userService.registerNewUser("notified", "password");
+        userService.updateContact("notified", "notified@example.test",
+                "http://localhost:" + webhookServer.getAddress().getPort() + "/hook");
+        BaseMedication first = medicationService.addMedication("Metoprolol", "Tablet", false, 2, "notified", null);
+        BaseMedication second = medicationService.addMedication("Omeprazole", "Capsule", false, 1, "notified", null);
+
+        for (BaseMedication med : List.of(first, second)) {
+            emailChannel.update(med);
+            webhookChannel.update(med);
+        }
+        emailChannel.flush();
+        webhookChannel.flush();
+
+        assertTrue(greenMail.waitForIncomingEmail(5000, 1));
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(1, received.length);
+        String text = GreenMailUtil.getBody(received[0]);
+        assertTrue(text.contains("Metoprolol") && text.contains("Omeprazole"));
+
+        assertTrue(webhookDelivered.await(5, TimeUnit.SECONDS));
+        assertEquals(2, webhookCalls.get());
+        assertEquals(1, webhookBodies.size());
+        assertTrue(webhookBodies.get(0).contains("Metoprolol") && webhookBodies.get(0).contains("Omeprazole"));
+    }
+
+    @Test
+    void testUndeliverableWebhookEndsInDeadLetters() throws Exception {
+        userService.registerNewUser("unreachable", "password");
+        // Port 1 is not listening, so every attempt fails to connect
+        userService.updateContact("unreachable", null, "http://localhost:1/hook");
+        BaseMedication med = medicationService.addMedication("Sertraline", "Tablet", false, 1, "unreachable", null);
+
+        webhookChannel.missed(med);
+        webhookChannel.flush();
+
+        List<DeadLetterNotification> stored = List.of();
+        for (int i = 0; i < 100 && stored.isEmpty(); i++) {
+            Thread.sleep(50);
+            stored = deadLetters.findByChannel("webhook");
+        }
+        assertEquals(1, stored.size());
+        assertEquals(3, stored.get(0).getAttempts());
+        assertTrue(stored.get(0).getPayload().contains("Missed: Sertraline"));
+    }
+}